@@ -0,0 +1,147 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load test for the /public CRUD endpoints. Each client thread sends one request at a
+// time for the whole run, so the number of clients is the offered concurrency. Run it against the
+// same MySQL database, on a machine with more than one core, once with platform threads and once on
+// Java 21 with --spring.threads.virtual.enabled=true:
+//
+//   java loadtest/PublicCrudLoadTest.java [baseUrl] [clients] [seconds]
+//   java loadtest/PublicCrudLoadTest.java http://localhost:8080 800 30
+//
+// The request mix is 50% contact reads, 20% paged report listing, 15% contact updates and 15%
+// contact inserts. Only the JDK is needed to run it.
+public class PublicCrudLoadTest {
+
+    private static final int SEED_CONTACTS = 200;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        List<Integer> contactIds = seedContacts(http, baseUrl);
+        System.out.printf("seeded %d contacts, running %d clients for %ds against %s%n",
+                contactIds.size(), clients, seconds, baseUrl);
+
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        for (int i = 0; i < clients; i++) {
+            LatencyLog log = new LatencyLog();
+            latencies.add(null);
+            int slot = i;
+            Thread client = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = http.send(nextRequest(baseUrl, contactIds), HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        log.add(System.nanoTime() - start);
+                    }
+                } finally {
+                    synchronized (latencies) {
+                        latencies.set(slot, log.toArray());
+                    }
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("requests   %d (%d errors)%n", all.length, errors.get());
+        System.out.printf("throughput %.0f req/s%n", all.length / (double) seconds);
+        System.out.printf("latency    p50 %s  p95 %s  p99 %s  max %s%n",
+                millis(all, 0.50), millis(all, 0.95), millis(all, 0.99), millis(all, 1.0));
+    }
+
+    private static HttpRequest nextRequest(String baseUrl, List<Integer> contactIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = contactIds.get(random.nextInt(contactIds.size()));
+        int roll = random.nextInt(100);
+        if (roll < 50) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/public/contactId/" + id)).GET().build();
+        }
+        if (roll < 70) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/public/reports?size=20")).GET().build();
+        }
+        if (roll < 85) {
+            return json(baseUrl + "/public/updateContact/" + id, "PUT", contact(random.nextInt()));
+        }
+        return json(baseUrl + "/public/addContact", "POST", contact(random.nextInt()));
+    }
+
+    private static List<Integer> seedContacts(HttpClient http, String baseUrl) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < SEED_CONTACTS; i++) {
+            String body = http.send(json(baseUrl + "/public/addContact", "POST", contact(i)),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            int start = body.indexOf("\"id\":") + 5;
+            int end = start;
+            while (end < body.length() && Character.isDigit(body.charAt(end))) {
+                end++;
+            }
+            ids.add(Integer.parseInt(body.substring(start, end)));
+        }
+        return ids;
+    }
+
+    private static HttpRequest json(String url, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String contact(int n) {
+        return "{\"name\":\"load " + n + "\",\"email\":\"load" + n + "@example.com\",\"message\":\"load test\"}";
+    }
+
+    private static String millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return "-";
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return String.format("%.1fms", sorted[Math.max(0, index)] / 1_000_000.0);
+    }
+
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
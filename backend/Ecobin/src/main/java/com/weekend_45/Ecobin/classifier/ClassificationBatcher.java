@@ -0,0 +1,178 @@
+package com.weekend_45.Ecobin.classifier;
+
+import com.weekend_45.Ecobin.exception.ClassifierUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Coalesces concurrent classification requests into batched inference. A single worker waits for
+// the first request, then collects more until the batch is full or the first one has waited
+// max-wait-ms, and runs them through the model together. Requests are rejected once the queue is
+// full so callers get a 503 instead of piling up behind the model.
+@Component
+public class ClassificationBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassificationBatcher.class);
+
+    private final TensorFlowClassifier classifier;
+    private final ImagePreprocessor preprocessor;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingRequest> queue;
+
+    private final DistributionSummary batchSize;
+    private final Timer waitTime;
+    private final Timer inferenceTime;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ClassificationBatcher(TensorFlowClassifier classifier,
+                                 ImagePreprocessor preprocessor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ecobin.classifier.batch.enabled:true}") boolean enabled,
+                                 @Value("${ecobin.classifier.batch.max-size:8}") int maxBatchSize,
+                                 @Value("${ecobin.classifier.batch.max-wait-ms:10}") long maxWaitMs,
+                                 @Value("${ecobin.classifier.batch.queue-capacity:256}") int queueCapacity) {
+        this.classifier = classifier;
+        this.preprocessor = preprocessor;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        meterRegistry.gauge("ecobin.classifier.queue.depth", queue, BlockingQueue::size);
+        this.batchSize = DistributionSummary.builder("ecobin.classifier.batch.size")
+                .description("Images per inference run")
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("ecobin.classifier.batch.wait")
+                .description("Time a request spent queued before its batch started")
+                .register(meterRegistry);
+        this.inferenceTime = Timer.builder("ecobin.classifier.batch.inference")
+                .description("Model run time per batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || !classifier.isAvailable()){
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "classifier-batcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    public CompletableFuture<ClassificationResult> submit(BufferedImage image) {
+        PendingRequest request = new PendingRequest(image);
+        if (!running){
+            request.future.completeExceptionally(new ClassifierUnavailableException("Classification batcher is not running"));
+        }else if (!queue.offer(request)){
+            request.future.completeExceptionally(new ClassifierUnavailableException("Classifier is overloaded, try again shortly"));
+        }
+        return request.future;
+    }
+
+    private void runLoop() {
+        List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+        List<BufferedImage> images = new ArrayList<>(maxBatchSize);
+        float[] pixels = new float[maxBatchSize * preprocessor.getImageLength()];
+
+        while (running){
+            try {
+                PendingRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null){
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = first.enqueuedAt + maxWaitNanos;
+                while (batch.size() < maxBatchSize){
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0){
+                        break;
+                    }
+                    PendingRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null){
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                execute(batch, images, pixels);
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                batch.forEach(request -> request.future.completeExceptionally(
+                        new ClassifierUnavailableException("Classifier is shutting down")));
+                break;
+            }finally {
+                batch.clear();
+                images.clear();
+            }
+        }
+
+        PendingRequest leftover;
+        while ((leftover = queue.poll()) != null){
+            leftover.future.completeExceptionally(new ClassifierUnavailableException("Classifier is shutting down"));
+        }
+    }
+
+    private void execute(List<PendingRequest> batch, List<BufferedImage> images, float[] pixels) {
+        long start = System.nanoTime();
+        for (PendingRequest request : batch){
+            images.add(request.image);
+            waitTime.record(start - request.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(batch.size());
+
+        try {
+            List<ClassificationResult> results = classifier.classifyBatch(images, pixels);
+            inferenceTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            for (int i = 0; i < batch.size(); i++){
+                batch.get(i).future.complete(results.get(i));
+            }
+        }catch (RuntimeException e){
+            log.error("Batched classification of {} images failed", batch.size(), e);
+            batch.forEach(request -> request.future.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null){
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private static final class PendingRequest {
+        private final BufferedImage image;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<ClassificationResult> future = new CompletableFuture<>();
+
+        private PendingRequest(BufferedImage image) {
+            this.image = image;
+        }
+    }
+}
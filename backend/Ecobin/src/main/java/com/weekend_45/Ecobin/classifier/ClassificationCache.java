@@ -0,0 +1,97 @@
+package com.weekend_45.Ecobin.classifier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Remembers recent classification results by perceptual hash so repeated camera frames skip
+// inference. A frame whose hash is within max-distance bits of a cached one reuses that result.
+// The near match is a linear scan, which stays cheap because the cache is small compared to the
+// cost of one model run. Boxes are kept as fractions of the image, since a matching frame can come
+// at another resolution, and are scaled to the requesting image on the way out.
+@Component
+public class ClassificationCache {
+
+    private final boolean enabled;
+    private final int maxDistance;
+    private final Cache<Long, Entry> cache;
+
+    private final Counter hits;
+    private final Counter nearHits;
+    private final Counter misses;
+
+    public ClassificationCache(MeterRegistry meterRegistry,
+                               @Value("${ecobin.classifier.cache.enabled:true}") boolean enabled,
+                               @Value("${ecobin.classifier.cache.max-size:1024}") long maxSize,
+                               @Value("${ecobin.classifier.cache.max-distance:4}") int maxDistance,
+                               @Value("${ecobin.classifier.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxDistance = maxDistance;
+        // Caffeine evicts by W-TinyLFU once the size bound is reached
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        meterRegistry.gauge("ecobin.classifier.cache.size", cache, Cache::estimatedSize);
+        this.hits = meterRegistry.counter("ecobin.classifier.cache.requests", "result", "hit");
+        this.nearHits = meterRegistry.counter("ecobin.classifier.cache.requests", "result", "near_hit");
+        this.misses = meterRegistry.counter("ecobin.classifier.cache.requests", "result", "miss");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // A cached result for a frame of width x height pixels, or null
+    public ClassificationResult find(long hash, int width, int height) {
+        Entry exact = cache.getIfPresent(hash);
+        if (exact != null){
+            hits.increment();
+            return exact.scaledTo(width, height);
+        }
+
+        if (maxDistance > 0){
+            Entry closest = null;
+            int closestDistance = maxDistance + 1;
+            for (Map.Entry<Long, Entry> entry : cache.asMap().entrySet()){
+                int distance = PerceptualHash.distance(hash, entry.getKey());
+                if (distance < closestDistance){
+                    closest = entry.getValue();
+                    closestDistance = distance;
+                }
+            }
+            if (closest != null){
+                nearHits.increment();
+                return closest.scaledTo(width, height);
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    // result was computed for a frame of width x height pixels
+    public void put(long hash, ClassificationResult result, int width, int height) {
+        cache.put(hash, new Entry(result.getLabel(), result.getConfidence(),
+                (float) result.getX() / width, (float) result.getY() / height,
+                (float) (result.getX() + result.getWidth()) / width, (float) (result.getY() + result.getHeight()) / height));
+    }
+
+    // Box corners as fractions of the image width and height
+    private record Entry(String label, float confidence, float left, float top, float right, float bottom) {
+
+        ClassificationResult scaledTo(int width, int height) {
+            int x = Math.round(left * width);
+            int y = Math.round(top * height);
+            return new ClassificationResult(label, confidence, x, y,
+                    Math.round(right * width) - x, Math.round(bottom * height) - y);
+        }
+    }
+}
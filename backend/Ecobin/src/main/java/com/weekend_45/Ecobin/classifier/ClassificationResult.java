@@ -0,0 +1,19 @@
+package com.weekend_45.Ecobin.classifier;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassificationResult {
+
+    private String label;
+    private float confidence;
+    // Pixel coordinates in the submitted image
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+}
@@ -0,0 +1,67 @@
+package com.weekend_45.Ecobin.classifier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Turns an encoded image into the float layout the model expects: NHWC, RGB, scaled to [-1, 1]
+// like the Teachable Machine MobileNet export in ecobin/public/model.
+@Component
+public class ImagePreprocessor {
+
+    private final int inputSize;
+
+    public ImagePreprocessor(@Value("${ecobin.classifier.input-size:224}") int inputSize) {
+        this.inputSize = inputSize;
+        // Decode request streams through an in-memory cache instead of a temp file per image
+        ImageIO.setUseCache(false);
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    // Number of floats one image occupies in the input tensor
+    public int getImageLength() {
+        return inputSize * inputSize * 3;
+    }
+
+    public BufferedImage decode(byte[] imageBytes) throws IOException {
+        return decode(new ByteArrayInputStream(imageBytes));
+    }
+
+    public BufferedImage decode(InputStream in) throws IOException {
+        BufferedImage image = ImageIO.read(in);
+        if (image == null){
+            throw new IOException("Unsupported or corrupt image");
+        }
+        return image;
+    }
+
+    // Writes the resized image into target starting at offset, so a single array can hold a batch
+    public void writePixels(BufferedImage image, float[] target, int offset) {
+        BufferedImage resized = new BufferedImage(inputSize, inputSize, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, inputSize, inputSize, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        int[] rgb = resized.getRGB(0, 0, inputSize, inputSize, null, 0, inputSize);
+        int index = offset;
+        for (int pixel : rgb){
+            target[index++] = ((pixel >> 16) & 0xFF) / 127.5f - 1f;
+            target[index++] = ((pixel >> 8) & 0xFF) / 127.5f - 1f;
+            target[index++] = (pixel & 0xFF) / 127.5f - 1f;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.weekend_45.Ecobin.classifier;
+
+import com.weekend_45.Ecobin.exception.ClassifierUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tensorflow.SavedModelBundle;
+import org.tensorflow.Session;
+import org.tensorflow.Signature;
+import org.tensorflow.Tensor;
+import org.tensorflow.ndarray.Shape;
+import org.tensorflow.ndarray.buffer.DataBuffers;
+import org.tensorflow.types.TFloat32;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Runs the waste classification SavedModel. The model is loaded and warmed up while the context
+// starts, so the web server only accepts requests once the graph is initialised. The session is
+// shared by all threads; each call borrows a preallocated input tensor from a small pool, which
+// also caps how many inferences run at once.
+@Component
+public class TensorFlowClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TensorFlowClassifier.class);
+
+    private final ImagePreprocessor preprocessor;
+    private final Path modelDir;
+    private final int poolSize;
+    // Signature output keys; when blank the outputs are recognised by name and shape
+    private final String scoresOutput;
+    private final String boxesOutput;
+    private List<String> labels;
+
+    private SavedModelBundle bundle;
+    private Session session;
+    private String inputName;
+    private String scoresName;
+    private String boxesName;
+    private BlockingQueue<InputSlot> slots;
+
+    public TensorFlowClassifier(ImagePreprocessor preprocessor,
+                                @Value("${ecobin.classifier.model-dir:model}") String modelDir,
+                                @Value("${ecobin.classifier.labels:Organic,Metal,Paper,Glass,Plastic}") List<String> labels,
+                                @Value("${ecobin.classifier.pool-size:4}") int poolSize,
+                                @Value("${ecobin.classifier.scores-output:}") String scoresOutput,
+                                @Value("${ecobin.classifier.boxes-output:}") String boxesOutput) {
+        this.preprocessor = preprocessor;
+        this.modelDir = Paths.get(modelDir);
+        this.labels = labels;
+        this.poolSize = Math.max(1, poolSize);
+        this.scoresOutput = scoresOutput.trim();
+        this.boxesOutput = boxesOutput.trim();
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (!Files.isDirectory(modelDir)){
+            log.warn("No SavedModel found at {}, waste classification is disabled", modelDir.toAbsolutePath());
+            return;
+        }
+
+        Path labelsFile = modelDir.resolve("labels.txt");
+        if (Files.isRegularFile(labelsFile)){
+            labels = Files.readAllLines(labelsFile, StandardCharsets.UTF_8).stream()
+                    .map(String::trim).filter(line -> !line.isEmpty()).toList();
+        }
+
+        long start = System.nanoTime();
+        bundle = SavedModelBundle.load(modelDir.toString(), SavedModelBundle.DEFAULT_TAG);
+        session = bundle.session();
+
+        Signature signature = bundle.function(Signature.DEFAULT_KEY).signature();
+        inputName = signature.getInputs().values().iterator().next().name;
+        selectOutputs(signature.getOutputs());
+
+        int size = preprocessor.getInputSize();
+        slots = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++){
+            slots.add(new InputSlot(new float[preprocessor.getImageLength()],
+                    TFloat32.tensorOf(Shape.of(1, size, size, 3))));
+        }
+
+        // The first run initialises kernels and allocates the graph's working memory
+        InputSlot slot = slots.remove();
+        try {
+            run(slot, size, size);
+        } finally {
+            slots.add(slot);
+        }
+
+        log.info("Loaded waste classifier from {} in {} ms", modelDir.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // The signature's outputs come in no particular order, so the scores are picked by name or by
+    // shape [batch, labels]; a model where neither identifies one output fails to load
+    private void selectOutputs(Map<String, Signature.TensorDescription> outputs) {
+        if (!boxesOutput.isEmpty()){
+            boxesName = output(outputs, boxesOutput).name;
+        }else {
+            boxesName = outputs.entrySet().stream()
+                    .filter(output -> output.getKey().contains("box"))
+                    .map(output -> output.getValue().name)
+                    .findFirst().orElse(null);
+        }
+
+        if (!scoresOutput.isEmpty()){
+            scoresName = output(outputs, scoresOutput).name;
+            return;
+        }
+        List<String> candidates = outputs.entrySet().stream()
+                .filter(output -> !output.getValue().name.equals(boxesName))
+                .filter(output -> {
+                    Shape shape = output.getValue().shape;
+                    return shape.numDimensions() == 2 && shape.size(1) == labels.size();
+                })
+                .map(Map.Entry::getKey)
+                .toList();
+        if (candidates.size() != 1){
+            throw new IllegalStateException("Cannot tell which output of " + outputs.keySet() + " holds the scores for "
+                    + labels.size() + " labels (candidates " + candidates + "); set ecobin.classifier.scores-output");
+        }
+        scoresName = outputs.get(candidates.get(0)).name;
+    }
+
+    private static Signature.TensorDescription output(Map<String, Signature.TensorDescription> outputs, String key) {
+        Signature.TensorDescription output = outputs.get(key);
+        if (output == null){
+            throw new IllegalStateException("The model has no output named " + key + ", only " + outputs.keySet());
+        }
+        return output;
+    }
+
+    public boolean isAvailable() {
+        return session != null;
+    }
+
+    public ClassificationResult classify(byte[] imageBytes) throws IOException {
+        return classify(preprocessor.decode(imageBytes));
+    }
+
+    public ClassificationResult classify(BufferedImage image) {
+        if (!isAvailable()){
+            throw new ClassifierUnavailableException("Waste classifier model is not loaded");
+        }
+
+        InputSlot slot;
+        try {
+            slot = slots.take();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new ClassifierUnavailableException("Interrupted while waiting for the classifier");
+        }
+
+        try {
+            preprocessor.writePixels(image, slot.pixels, 0);
+            return run(slot, image.getWidth(), image.getHeight());
+        } finally {
+            slots.add(slot);
+        }
+    }
+
+    // Classifies several images in one session run. pixels is caller owned scratch space holding at
+    // least images.size() images; the batcher reuses one array for every batch.
+    public List<ClassificationResult> classifyBatch(List<BufferedImage> images, float[] pixels) {
+        if (!isAvailable()){
+            throw new ClassifierUnavailableException("Waste classifier model is not loaded");
+        }
+
+        int count = images.size();
+        int imageLength = preprocessor.getImageLength();
+        for (int i = 0; i < count; i++){
+            preprocessor.writePixels(images.get(i), pixels, i * imageLength);
+        }
+
+        int size = preprocessor.getInputSize();
+        try (TFloat32 input = TFloat32.tensorOf(Shape.of(count, size, size, 3),
+                DataBuffers.of(pixels, true, false).narrow((long) count * imageLength))) {
+            List<Tensor> outputs = fetch(input);
+            try {
+                List<ClassificationResult> results = new ArrayList<>(count);
+                for (int i = 0; i < count; i++){
+                    BufferedImage image = images.get(i);
+                    results.add(toResult(outputs, i, image.getWidth(), image.getHeight()));
+                }
+                return results;
+            } finally {
+                outputs.forEach(Tensor::close);
+            }
+        }
+    }
+
+    private ClassificationResult run(InputSlot slot, int width, int height) {
+        slot.tensor.write(DataBuffers.of(slot.pixels, true, false));
+
+        List<Tensor> outputs = fetch(slot.tensor);
+        try {
+            return toResult(outputs, 0, width, height);
+        } finally {
+            outputs.forEach(Tensor::close);
+        }
+    }
+
+    private List<Tensor> fetch(TFloat32 input) {
+        Session.Runner runner = session.runner().feed(inputName, input).fetch(scoresName);
+        if (boxesName != null){
+            runner.fetch(boxesName);
+        }
+        return runner.run();
+    }
+
+    private ClassificationResult toResult(List<Tensor> outputs, int row, int width, int height) {
+        TFloat32 scores = (TFloat32) outputs.get(0);
+        int best = 0;
+        float confidence = scores.getFloat(row, 0);
+        long classes = scores.shape().size(1);
+        for (int i = 1; i < classes; i++){
+            float score = scores.getFloat(row, i);
+            if (score > confidence){
+                best = i;
+                confidence = score;
+            }
+        }
+
+        String label = best < labels.size() ? labels.get(best) : String.valueOf(best);
+
+        // Classification models have no box output, the whole frame is the detected region
+        if (boxesName == null){
+            return new ClassificationResult(label, confidence, 0, 0, width, height);
+        }
+
+        // Detection boxes are normalised [ymin, xmin, ymax, xmax], highest score first
+        TFloat32 boxes = (TFloat32) outputs.get(1);
+        int y = Math.round(boxes.getFloat(row, 0, 0) * height);
+        int x = Math.round(boxes.getFloat(row, 0, 1) * width);
+        int bottom = Math.round(boxes.getFloat(row, 0, 2) * height);
+        int right = Math.round(boxes.getFloat(row, 0, 3) * width);
+        return new ClassificationResult(label, confidence, x, y, right - x, bottom - y);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (slots != null){
+            List<InputSlot> remaining = new ArrayList<>(slots);
+            remaining.forEach(slot -> slot.tensor.close());
+        }
+        if (bundle != null){
+            bundle.close();
+        }
+    }
+
+    private static final class InputSlot {
+        private final float[] pixels;
+        private final TFloat32 tensor;
+
+        private InputSlot(float[] pixels, TFloat32 tensor) {
+            this.pixels = pixels;
+            this.tensor = tensor;
+        }
+    }
+}
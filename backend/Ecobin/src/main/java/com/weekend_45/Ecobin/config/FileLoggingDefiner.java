@@ -0,0 +1,21 @@
+package com.weekend_45.Ecobin.config;
+
+import ch.qos.logback.core.PropertyDefinerBase;
+
+// Used by logback-spring.xml to pick the optional include that adds file logging. Spring Boot sets
+// LOG_FILE only when logging.file.name or logging.file.path is configured; Logback has no condition
+// for that without Janino on the classpath.
+public class FileLoggingDefiner extends PropertyDefinerBase {
+
+    static final String FILE_LOGGING = "logback-file-appender.xml";
+    static final String NONE = "logback-file-appender-disabled.xml";
+
+    @Override
+    public String getPropertyValue() {
+        String logFile = getContext() != null ? getContext().getProperty("LOG_FILE") : null;
+        if (logFile == null){
+            logFile = System.getProperty("LOG_FILE");
+        }
+        return logFile == null || logFile.isBlank() ? NONE : FILE_LOGGING;
+    }
+}
@@ -2,7 +2,9 @@ package com.weekend_45.Ecobin.config;
 
 
 import com.weekend_45.Ecobin.service.JWTUtils;
-import com.weekend_45.Ecobin.service.OurUserDetailsService;
+import com.weekend_45.Ecobin.service.PrincipalCache;
+import com.weekend_45.Ecobin.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,7 +27,10 @@ public class JWTAuthFilter extends OncePerRequestFilter {
     private JWTUtils jwtUtils;
 
     @Autowired
-    private OurUserDetailsService ourUserDetailsService;
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -40,12 +45,13 @@ public class JWTAuthFilter extends OncePerRequestFilter {
 
 
         jwtToken = authHeader.substring(7);
-        userEmail = jwtUtils.extractUserName(jwtToken);
+        Claims claims = verifiedTokenCache.verify(jwtToken);
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication()==null){
-            UserDetails userDetails = ourUserDetailsService.loadUserByUsername(userEmail);
+            UserDetails userDetails = principalCache.load(userEmail);
 
-            if (jwtUtils.isTokenValid(jwtToken,userDetails)){
+            if (jwtUtils.isClaimsValid(claims,userDetails)){
                 SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
                 UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
                         userDetails,null,userDetails.getAuthorities()
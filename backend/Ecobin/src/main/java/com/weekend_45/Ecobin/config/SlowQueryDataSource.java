@@ -0,0 +1,139 @@
+package com.weekend_45.Ecobin.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Times every statement run through the pool. Statements slower than the threshold are logged at
+// WARN, and a random sample of the others at INFO, with the duration, the number of bind parameters
+// and the batch size both in the message and as key-value pairs for structured log formats. Only
+// the SQL text is logged, never the parameter values.
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryDataSource.class);
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxSqlLength;
+
+    public SlowQueryDataSource(DataSource target, Duration threshold, double sampleRate, int maxSqlLength) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = call(connection, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class, new TimedStatement(result, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class, new TimedStatement(result, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class, new TimedStatement(result, null));
+                default -> result;
+            };
+        });
+    }
+
+    private final class TimedStatement implements InvocationHandler {
+
+        private final Object target;
+        private final String sql;
+        private int parameters;
+        private int batchSize;
+
+        private TimedStatement(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")){
+                // Plain statements get their SQL with the call
+                String text = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String given ? given : null;
+                boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+                long start = System.nanoTime();
+                try {
+                    return call(target, method, args);
+                }finally {
+                    record(text, System.nanoTime() - start, parameters, batch ? batchSize : 1);
+                    if (batch){
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (name.equals("addBatch")){
+                batchSize++;
+            }else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index){
+                parameters = Math.max(parameters, index);
+            }
+            return call(target, method, args);
+        }
+    }
+
+    private void record(String sql, long nanos, int parameters, int batchSize) {
+        boolean slow = thresholdNanos > 0 && nanos >= thresholdNanos;
+        if (slow ? !log.isWarnEnabled() : !(sampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate)){
+            return;
+        }
+
+        double millis = Math.round(nanos / 100_000.0) / 10.0;
+        String text = sql == null ? "" : sql.replaceAll("\\s+", " ").trim();
+        if (text.length() > maxSqlLength){
+            text = text.substring(0, maxSqlLength) + "...";
+        }
+        LoggingEventBuilder event = slow ? log.atWarn() : log.atInfo();
+        event.addKeyValue("durationMs", millis)
+                .addKeyValue("parameters", parameters)
+                .addKeyValue("batchSize", batchSize)
+                .addKeyValue("sql", text)
+                .log("{} statement took {} ms ({} parameters, batch of {}): {}",
+                        slow ? "Slow" : "Sampled", millis, parameters, batchSize, text);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            // Proxies are compared by identity, as the pool and Hibernate keep them in maps
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handler.invoke(proxy, method, args);
+            };
+        });
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }catch (InvocationTargetException e){
+            throw e.getCause();
+        }
+    }
+}
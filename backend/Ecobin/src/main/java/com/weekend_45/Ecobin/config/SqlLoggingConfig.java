@@ -0,0 +1,56 @@
+package com.weekend_45.Ecobin.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// SQL diagnostics without printing every statement. Hibernate's show_sql writes each statement to
+// System.out synchronously, so it stays off unless ecobin.sql-log.show-sql=true; the slow query
+// log (SlowQueryDataSource) goes through the regular, asynchronous logging instead.
+@Configuration
+public class SqlLoggingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlLoggingConfig.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlEchoCustomizer(JpaProperties jpaProperties,
+                                                           @Value("${ecobin.sql-log.show-sql:false}") boolean showSql) {
+        return properties -> {
+            if (jpaProperties.isShowSql() && !showSql){
+                log.info("Ignoring spring.jpa.show-sql; set ecobin.sql-log.show-sql=true to print every statement, " +
+                        "or logging.level.org.hibernate.SQL=debug to log them");
+            }
+            properties.put(AvailableSettings.SHOW_SQL, showSql);
+            if (!showSql){
+                properties.put(AvailableSettings.FORMAT_SQL, false);
+            }
+        };
+    }
+
+    // Static, so the data source can be wrapped before anything else asks for it
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            @Value("${ecobin.sql-log.slow-threshold-ms:500}") long thresholdMs,
+            @Value("${ecobin.sql-log.sample-rate:0}") double sampleRate,
+            @Value("${ecobin.sql-log.max-sql-length:1000}") int maxSqlLength) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)
+                        && (thresholdMs > 0 || sampleRate > 0)){
+                    return new SlowQueryDataSource(dataSource, Duration.ofMillis(thresholdMs), sampleRate, maxSqlLength);
+                }
+                return bean;
+            }
+        };
+    }
+}
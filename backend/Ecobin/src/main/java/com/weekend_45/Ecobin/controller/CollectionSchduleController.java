@@ -2,11 +2,15 @@ package com.weekend_45.Ecobin.controller;
 
 import com.weekend_45.Ecobin.entity.CollectionSchedule;
 import com.weekend_45.Ecobin.repository.CollectionScheduleRepo;
+import com.weekend_45.Ecobin.service.Geo;
+import com.weekend_45.Ecobin.storage.BlobStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,15 +20,20 @@ public class CollectionSchduleController {
     @Autowired
     private CollectionScheduleRepo collectionScheduleRepo;
 
+    @Autowired
+    private BlobStore blobStore;
+
     @PostMapping("/public/addSchedule")
     public String addCollection(
             @RequestParam("driverName")String driverName,
             @RequestParam("wasteType")String wasteType,
-            @RequestParam("collectionDate")String collectionDate,
+            @RequestParam("collectionDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime collectionDate,
             @RequestParam("location")String location,
             @RequestParam("status")String status,
             @RequestParam("remark")String remark,
-            @RequestParam("truckImage")MultipartFile truckImage
+            @RequestParam("truckImage")MultipartFile truckImage,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude
             ){
         try {
             CollectionSchedule collectionSchedule = new CollectionSchedule();
@@ -32,9 +41,12 @@ public class CollectionSchduleController {
             collectionSchedule.setWasteType(wasteType);
             collectionSchedule.setCollectionDate(collectionDate);
             collectionSchedule.setLocation(location);
+            Geo.requireValid(latitude, longitude);
+            collectionSchedule.setLatitude(latitude);
+            collectionSchedule.setLongitude(longitude);
             collectionSchedule.setStatus(status);
             collectionSchedule.setRemark(remark);
-            collectionSchedule.setTruckImage(truckImage.getBytes());
+            collectionSchedule.setTruckImageKey(blobStore.store(truckImage));
 
             collectionScheduleRepo.save(collectionSchedule);
 
@@ -49,6 +61,20 @@ public class CollectionSchduleController {
         return collectionScheduleRepo.findAll();
     }
 
+    // Schedules collected between from and to (inclusive days), optionally with a given status
+    @GetMapping("/public/getScheduleByDate")
+    public List<CollectionSchedule> getScheduleByDate(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", required = false) String status){
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
+        if (status != null && !status.isBlank()){
+            return collectionScheduleRepo.findByStatusAndCollectionDateBetweenOrderByCollectionDate(status, start, end);
+        }
+        return collectionScheduleRepo.findByCollectionDateBetweenOrderByCollectionDate(start, end);
+    }
+
     @GetMapping("/public/getById/{id}")
     public CollectionSchedule getCollectionScheduleById(@PathVariable Long id){
         return collectionScheduleRepo.findById(id)
@@ -60,11 +86,13 @@ public class CollectionSchduleController {
             @PathVariable Long id,
             @RequestParam("driverName") String driverName,
             @RequestParam("wasteType") String wasteType,
-            @RequestParam("collectionDate") String collectionDate,
+            @RequestParam("collectionDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime collectionDate,
             @RequestParam("location") String location,
             @RequestParam("status") String status,
             @RequestParam("remark") String remark,
-            @RequestParam(value = "truckImage",required = false) MultipartFile truckImage){
+            @RequestParam(value = "truckImage",required = false) MultipartFile truckImage,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude){
 
                 try{
                     CollectionSchedule collectionSchedule=collectionScheduleRepo.findById(id)
@@ -73,11 +101,17 @@ public class CollectionSchduleController {
                     collectionSchedule.setWasteType(wasteType);
                     collectionSchedule.setCollectionDate(collectionDate);
                     collectionSchedule.setLocation(location);
+                    // Coordinates are kept when the form does not send them, like the image
+                    Geo.requireValid(latitude, longitude);
+                    if (latitude != null){
+                        collectionSchedule.setLatitude(latitude);
+                        collectionSchedule.setLongitude(longitude);
+                    }
                     collectionSchedule.setStatus(status);
                     collectionSchedule.setRemark(remark);
 
                     if (truckImage != null && !truckImage.isEmpty()){
-                        collectionSchedule.setTruckImage((truckImage.getBytes()));
+                        collectionSchedule.setTruckImageKey(blobStore.store(truckImage));
                     }
 
                     collectionScheduleRepo.save(collectionSchedule);
@@ -1,7 +1,14 @@
 package com.weekend_45.Ecobin.controller;
 
 
+import com.weekend_45.Ecobin.dto.DetectionRequest;
 import com.weekend_45.Ecobin.entity.ImageDetector;
+import com.weekend_45.Ecobin.service.DetectionWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
@@ -9,16 +16,28 @@ import org.springframework.http.ResponseEntity;
 @RequestMapping("/public/detections")// Allow frontend access
 public class DetectionController {
 
+    private static final Logger log = LoggerFactory.getLogger(DetectionController.class);
+
+    @Autowired
+    private DetectionWriter detectionWriter;
+
     @PostMapping
-    public ResponseEntity<String> saveDetection(@RequestBody ImageDetector detection) {
-        // Log the detection data
-        System.out.println("Detected Object: " + detection.getObjectType() +
-                ", Confidence: " + detection.getConfidence() +
-                ", Time: " + detection.getTimestamp());
+    public ResponseEntity<String> saveDetection(@RequestBody DetectionRequest request) {
+        log.debug("Detected object {} with confidence {} at {}",
+                request.getObjectType(), request.getConfidence(), request.getTimestamp());
 
-        // Optional: Save to DB (Future Enhancement)
+        ImageDetector detection = new ImageDetector();
+        detection.setObjectType(request.getObjectType());
+        detection.setConfidence(request.getConfidence());
+        detection.setTimestamp(request.getTimestamp());
 
-        return ResponseEntity.ok("Detection received");
+        // Saved in the background by the batched writer
+        if (!detectionWriter.submit(detection)){
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Detection queue is full");
+        }
+
+        return ResponseEntity.accepted().body("Detection received");
     }
 }
-
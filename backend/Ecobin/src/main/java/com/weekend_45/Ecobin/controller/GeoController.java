@@ -0,0 +1,59 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.dto.GeoHit;
+import com.weekend_45.Ecobin.service.Geo;
+import com.weekend_45.Ecobin.service.GeoQueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class GeoController {
+
+    private static final int MAX_RESULTS = 500;
+
+    @Autowired
+    private GeoQueryService geoQueryService;
+
+    // Reports, schedules or pickups within radiusKm (at most ecobin.geo.max-radius-km) of the point,
+    // closest first, e.g. /public/geo/reports/within?lat=6.93&lon=79.85&radiusKm=2
+    @GetMapping("/public/geo/{type}/within")
+    public ResponseEntity<List<GeoHit>> within(@PathVariable String type,
+                                               @RequestParam("lat") double lat,
+                                               @RequestParam("lon") double lon,
+                                               @RequestParam("radiusKm") double radiusKm,
+                                               @RequestParam(value = "wasteType", required = false) String wasteType,
+                                               @RequestParam(value = "status", required = false) String status,
+                                               @RequestParam(value = "limit", defaultValue = "100") int limit){
+        Optional<GeoQueryService.Type> geoType = GeoQueryService.Type.parse(type);
+        if (geoType.isEmpty() || !Geo.isValid(lat, lon) || !(radiusKm > 0)){
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(geoQueryService.within(geoType.get(), lat, lon, radiusKm * 1000,
+                blankToNull(wasteType), blankToNull(status), Math.max(1, Math.min(limit, MAX_RESULTS))));
+    }
+
+    // The k reports, schedules or pickups closest to the point
+    @GetMapping("/public/geo/{type}/nearest")
+    public ResponseEntity<List<GeoHit>> nearest(@PathVariable String type,
+                                                @RequestParam("lat") double lat,
+                                                @RequestParam("lon") double lon,
+                                                @RequestParam(value = "k", defaultValue = "10") int k,
+                                                @RequestParam(value = "wasteType", required = false) String wasteType,
+                                                @RequestParam(value = "status", required = false) String status){
+        Optional<GeoQueryService.Type> geoType = GeoQueryService.Type.parse(type);
+        if (geoType.isEmpty() || !Geo.isValid(lat, lon)){
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(geoQueryService.nearest(geoType.get(), lat, lon,
+                Math.max(1, Math.min(k, MAX_RESULTS)), blankToNull(wasteType), blankToNull(status)));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,55 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:3000")
+public class ImageController {
+
+    @Autowired
+    private BlobStore blobStore;
+
+    // Blobs are immutable and keyed by their hash, so the key doubles as a strong ETag.
+    // Range requests are handled by Spring for Resource bodies.
+    @GetMapping("/public/images/{key}")
+    public ResponseEntity<Resource> getImage(@PathVariable String key, WebRequest request){
+        Optional<Resource> image = blobStore.load(key);
+        if (image.isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + key + "\"";
+        if (request.checkNotModified(etag)){
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(detectContentType(image.get()))
+                .body(image.get());
+    }
+
+    private MediaType detectContentType(Resource resource){
+        try (InputStream in = new BufferedInputStream(resource.getInputStream())) {
+            String type = URLConnection.guessContentTypeFromStream(in);
+            return type != null ? MediaType.parseMediaType(type) : MediaType.APPLICATION_OCTET_STREAM;
+        }catch (IOException e){
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.dto.ImportJob;
+import com.weekend_45.Ecobin.importer.BulkImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class ImportController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    // Imports waste reports or pickup requests from the request body, sent as text/csv with a header
+    // row or as application/x-ndjson. Returns a job id to poll for progress and rejected rows.
+    @PostMapping(value = "/admin/imports/{type}", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportJob> submitImport(@PathVariable String type,
+                                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                  InputStream body) throws IOException {
+        Optional<BulkImportService.Type> importType = BulkImportService.Type.parse(type);
+        if (importType.isEmpty()){
+            return ResponseEntity.badRequest().build();
+        }
+        BulkImportService.Format format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? BulkImportService.Format.NDJSON : BulkImportService.Format.CSV;
+
+        try {
+            ImportJob job = bulkImportService.submit(importType.get(), format, body);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/admin/imports/" + job.getId()))
+                    .body(job);
+        }catch (RejectedExecutionException e){
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
+    @GetMapping("/admin/imports/{id}")
+    public ResponseEntity<ImportJob> importJob(@PathVariable String id){
+        return ResponseEntity.of(bulkImportService.job(id));
+    }
+}
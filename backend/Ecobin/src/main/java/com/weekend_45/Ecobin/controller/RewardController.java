@@ -0,0 +1,46 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.entity.RewardBalance;
+import com.weekend_45.Ecobin.entity.RewardLedgerEntry;
+import com.weekend_45.Ecobin.repository.RewardLedgerRepo;
+import com.weekend_45.Ecobin.reward.RewardBalanceWriter;
+import com.weekend_45.Ecobin.reward.RewardLeaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class RewardController {
+
+    private static final int MAX_ENTRIES = 200;
+
+    @Autowired
+    private RewardBalanceWriter rewardBalanceWriter;
+
+    @Autowired
+    private RewardLedgerRepo rewardLedgerRepo;
+
+    @Autowired
+    private RewardLeaderboard rewardLeaderboard;
+
+    // A customer without any reward has a balance of 0
+    @GetMapping("/public/rewards/balance")
+    public RewardBalance balance(@RequestParam("customer") String customer){
+        return rewardBalanceWriter.balance(customer.trim());
+    }
+
+    @GetMapping("/public/rewards/leaderboard")
+    public List<RewardBalance> leaderboard(@RequestParam(value = "limit", defaultValue = "10") int limit){
+        return rewardLeaderboard.top(Math.max(1, limit));
+    }
+
+    // Newest entries first
+    @GetMapping("/public/rewards/ledger")
+    public List<RewardLedgerEntry> ledger(@RequestParam("customer") String customer,
+                                         @RequestParam(value = "limit", defaultValue = "50") int limit){
+        return rewardLedgerRepo.findByCustomerNameOrderByIdDesc(customer.trim(), Limit.of(Math.max(1, Math.min(limit, MAX_ENTRIES))));
+    }
+}
@@ -0,0 +1,44 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.dto.RoutePlan;
+import com.weekend_45.Ecobin.route.RoutePlanner;
+import com.weekend_45.Ecobin.service.Geo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class RouteController {
+
+    @Autowired
+    private RoutePlanner routePlanner;
+
+    // Orders the day's pending stops per driver and takes in the pending pickup requests. With
+    // apply=false the plan is only returned; depotLat/depotLon make every route start and end there.
+    @PostMapping("/admin/routes/plan")
+    public ResponseEntity<RoutePlan> planRoutes(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "depotLat", required = false) Double depotLat,
+            @RequestParam(value = "depotLon", required = false) Double depotLon,
+            @RequestParam(value = "apply", defaultValue = "true") boolean apply){
+        try {
+            Geo.requireValid(depotLat, depotLon);
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().build();
+        }
+
+        RoutePlanner.Depot depot = depotLat != null ? new RoutePlanner.Depot(depotLat, depotLon) : null;
+        try {
+            return ResponseEntity.ok(routePlanner.plan(date, depot, apply));
+        }catch (DataIntegrityViolationException e){
+            // A plan running at the same time took some of the same pickup requests
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.dto.ScheduleReportFilter;
+import com.weekend_45.Ecobin.dto.ScheduleReportJob;
+import com.weekend_45.Ecobin.service.CollectionScheduleReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class ScheduleReportController {
+
+    @Autowired
+    private CollectionScheduleReportService collectionScheduleReportService;
+
+    // Generates the report while streaming it to the client
+    @GetMapping("/public/schedules/report")
+    public ResponseEntity<StreamingResponseBody> scheduleReport(
+            @RequestParam(value = "format", defaultValue = "pdf") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "driver", required = false) String driver
+    ){
+        Optional<CollectionScheduleReportService.Format> reportFormat = parseFormat(format);
+        if (reportFormat.isEmpty()){
+            return ResponseEntity.badRequest().build();
+        }
+
+        CollectionScheduleReportService.Format selected = reportFormat.get();
+        ScheduleReportFilter filter = filter(from, to, status, location, driver);
+        return ResponseEntity.ok()
+                .contentType(selected.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(selected))
+                .body(out -> collectionScheduleReportService.write(filter, selected, out));
+    }
+
+    // For large ranges: generates the report in the background and returns a job id to poll
+    @PostMapping("/public/schedules/report/jobs")
+    public ResponseEntity<ScheduleReportJob> submitScheduleReport(
+            @RequestParam(value = "format", defaultValue = "pdf") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "driver", required = false) String driver
+    ){
+        Optional<CollectionScheduleReportService.Format> reportFormat = parseFormat(format);
+        if (reportFormat.isEmpty()){
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            ScheduleReportJob job = collectionScheduleReportService.submit(filter(from, to, status, location, driver), reportFormat.get());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/public/schedules/report/jobs/" + job.getId()))
+                    .body(job);
+        }catch (RejectedExecutionException e){
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+    }
+
+    @GetMapping("/public/schedules/report/jobs/{id}")
+    public ResponseEntity<ScheduleReportJob> scheduleReportJob(@PathVariable String id){
+        return ResponseEntity.of(collectionScheduleReportService.job(id));
+    }
+
+    @GetMapping("/public/schedules/report/jobs/{id}/download")
+    public ResponseEntity<Resource> downloadScheduleReport(@PathVariable String id){
+        Optional<ScheduleReportJob> found = collectionScheduleReportService.job(id);
+        if (found.isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+
+        ScheduleReportJob job = found.get();
+        if (job.getStatus() != ScheduleReportJob.Status.DONE){
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        CollectionScheduleReportService.Format format = CollectionScheduleReportService.Format.valueOf(job.getFormat().toUpperCase());
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(format))
+                .body(new FileSystemResource(job.getFile()));
+    }
+
+    private static Optional<CollectionScheduleReportService.Format> parseFormat(String format) {
+        for (CollectionScheduleReportService.Format candidate : CollectionScheduleReportService.Format.values()){
+            if (candidate.name().equalsIgnoreCase(format)){
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static ScheduleReportFilter filter(LocalDate from, LocalDate to, String status, String location, String driver) {
+        return new ScheduleReportFilter(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay().minusNanos(1) : null,
+                blankToNull(status), blankToNull(location), blankToNull(driver));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String attachment(CollectionScheduleReportService.Format format) {
+        return ContentDisposition.attachment().filename(format.fileName()).build().toString();
+    }
+}
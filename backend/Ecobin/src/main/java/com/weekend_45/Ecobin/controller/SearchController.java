@@ -0,0 +1,45 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.dto.SearchResult;
+import com.weekend_45.Ecobin.search.SearchIndex;
+import com.weekend_45.Ecobin.search.SearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class SearchController {
+
+    private static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    // Text search over reports, pickup requests and contacts with facet counts; type, wasteType and
+    // frequency narrow the results to one facet value each
+    @GetMapping("/public/search")
+    public SearchResult search(@RequestParam(value = "q", required = false) String q,
+                               @RequestParam(value = "type", required = false) String type,
+                               @RequestParam(value = "wasteType", required = false) String wasteType,
+                               @RequestParam(value = "frequency", required = false) String frequency,
+                               @RequestParam(value = "limit", defaultValue = "20") int limit) throws IOException {
+        Map<String, String> filters = new LinkedHashMap<>();
+        if (type != null && !type.isBlank()) filters.put("type", type);
+        if (wasteType != null && !wasteType.isBlank()) filters.put("wasteType", wasteType);
+        if (frequency != null && !frequency.isBlank()) filters.put("frequency", frequency);
+
+        return searchIndex.search(q, filters, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+
+    @PostMapping("/admin/search/rebuild")
+    public Map<String, Long> rebuildSearchIndex() throws IOException {
+        return searchIndexer.rebuild();
+    }
+}
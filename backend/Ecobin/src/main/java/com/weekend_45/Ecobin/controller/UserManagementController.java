@@ -2,13 +2,20 @@ package com.weekend_45.Ecobin.controller;
 
 import com.weekend_45.Ecobin.dto.ReqRes;
 import com.weekend_45.Ecobin.entity.OurUsers;
+import com.weekend_45.Ecobin.exception.PasswordHashingBusyException;
+import com.weekend_45.Ecobin.service.PasswordHashingExecutor;
 import com.weekend_45.Ecobin.service.UserManagementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -17,14 +24,20 @@ public class UserManagementController {
     @Autowired
     private UserManagementService userManagementService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    // Register and login hash passwords, so they run on the hashing pool and free the request thread
     @PostMapping("/auth/register")
-    public ResponseEntity<ReqRes> register(@RequestBody ReqRes reg){
-        return ResponseEntity.ok(userManagementService.register(reg));
+    public CompletableFuture<ResponseEntity<ReqRes>> register(@RequestBody ReqRes reg){
+        return passwordHashingExecutor.submit(() -> userManagementService.register(reg))
+                .handle(this::hashingResponse);
     }
 
     @PostMapping("/auth/login")
-    public ResponseEntity<ReqRes> login(@RequestBody ReqRes req){
-        return ResponseEntity.ok(userManagementService.login(req));
+    public CompletableFuture<ResponseEntity<ReqRes>> login(@RequestBody ReqRes req){
+        return passwordHashingExecutor.submit(() -> userManagementService.login(req))
+                .handle(this::hashingResponse);
     }
 
     @PostMapping("/auth/refresh")
@@ -60,4 +73,21 @@ public class UserManagementController {
     public ResponseEntity<ReqRes> deleteUser(@PathVariable Integer userId){
         return ResponseEntity.ok(userManagementService.deleteUser(userId));
     }
+
+    private ResponseEntity<ReqRes> hashingResponse(ReqRes result, Throwable failure){
+        if (failure == null){
+            return ResponseEntity.ok(result);
+        }
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        ReqRes response = new ReqRes();
+        response.setMessage(cause.getMessage());
+        if (cause instanceof PasswordHashingBusyException){
+            response.setStatusCode(503);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+        response.setStatusCode(500);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
 }
@@ -0,0 +1,36 @@
+package com.weekend_45.Ecobin.controller;
+
+import com.weekend_45.Ecobin.dto.WasteAnalytics;
+import com.weekend_45.Ecobin.service.WasteAnalyticsService;
+import com.weekend_45.Ecobin.service.WasteRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+public class WasteAnalyticsController {
+
+    @Autowired
+    private WasteAnalyticsService wasteAnalyticsService;
+
+    @Autowired
+    private WasteRollupService wasteRollupService;
+
+    // Dashboard aggregates for reports dated between from and to (yyyy-MM-dd, both optional and inclusive)
+    @GetMapping("/public/analytics/waste")
+    public WasteAnalytics getWasteAnalytics(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ){
+        return wasteAnalyticsService.getWasteAnalytics(from, to);
+    }
+
+    // Repairs the rollup tables from the reports
+    @PostMapping("/admin/rollups/waste/rebuild")
+    public String rebuildWasteRollups(){
+        return "Waste rollups rebuilt with buckets: " + wasteRollupService.rebuild();
+    }
+}
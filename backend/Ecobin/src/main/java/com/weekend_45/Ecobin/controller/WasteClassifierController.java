@@ -1,45 +1,145 @@
 package com.weekend_45.Ecobin.controller;
 
+import com.weekend_45.Ecobin.classifier.ClassificationBatcher;
+import com.weekend_45.Ecobin.classifier.ClassificationCache;
+import com.weekend_45.Ecobin.classifier.ClassificationResult;
+import com.weekend_45.Ecobin.classifier.ImagePreprocessor;
+import com.weekend_45.Ecobin.classifier.PerceptualHash;
+import com.weekend_45.Ecobin.classifier.TensorFlowClassifier;
+import com.weekend_45.Ecobin.exception.ClassifierUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:3000")
 public class WasteClassifierController {
 
+    @Autowired
+    private TensorFlowClassifier tensorFlowClassifier;
+
+    @Autowired
+    private ClassificationBatcher classificationBatcher;
+
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
+
+    @Autowired
+    private ClassificationCache classificationCache;
+
     // Endpoint to classify waste
     @PostMapping("/public/classify")
-    public Map<String, Object> classifyWaste(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> classifyWaste(@RequestBody Map<String, String> request) {
         String base64Image = request.get("image");
+        if (base64Image == null || base64Image.isBlank()){
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, "Missing image"));
+        }
 
         // Decode base64 image (remove the data URL part if present)
-        byte[] imageBytes = Base64.getDecoder().decode(base64Image.split(",")[1]);
+        int comma = base64Image.indexOf(',');
+
+        BufferedImage image;
+        try {
+            byte[] imageBytes = Base64.getDecoder().decode(comma >= 0 ? base64Image.substring(comma + 1) : base64Image);
+            image = imagePreprocessor.decode(imageBytes);
+        }catch (IOException | IllegalArgumentException e){
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+
+        return classify(image);
+    }
+
+    // Binary alternative to /public/classify: the image is decoded straight from the request body,
+    // without the base64 string and its decoded copy
+    @PostMapping(value = "/public/classify/upload",
+            consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> classifyUpload(HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            return classify(imagePreprocessor.decode(in));
+        }catch (IOException e){
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+    }
 
-        // Simulate classification result and bounding box (replace this with actual model later)
+    @PostMapping(value = "/public/classify/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> classifyMultipart(@RequestParam("image") MultipartFile image) {
+        try (InputStream in = image.getInputStream()) {
+            return classify(imagePreprocessor.decode(in));
+        }catch (IOException e){
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+    }
+
+    // Near duplicate frames are answered from the cache; the rest go through the batcher when it
+    // is running so concurrent frames share one inference
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> classify(BufferedImage image) {
+        long hash = 0;
+        if (classificationCache.isEnabled()){
+            hash = PerceptualHash.dHash(image);
+            ClassificationResult cached = classificationCache.find(hash, image.getWidth(), image.getHeight());
+            if (cached != null){
+                return CompletableFuture.completedFuture(ResponseEntity.ok(toResponse(cached)));
+            }
+        }
+
+        CompletableFuture<ClassificationResult> result;
+        if (classificationBatcher.isEnabled()){
+            result = classificationBatcher.submit(image);
+        }else {
+            try {
+                result = CompletableFuture.completedFuture(tensorFlowClassifier.classify(image));
+            }catch (ClassifierUnavailableException e){
+                result = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        long imageHash = hash;
+        return result.handle((classification, failure) -> {
+            if (failure == null){
+                if (classificationCache.isEnabled()){
+                    classificationCache.put(imageHash, classification, image.getWidth(), image.getHeight());
+                }
+                return ResponseEntity.ok(toResponse(classification));
+            }
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            if (cause instanceof ClassifierUnavailableException){
+                return error(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage());
+            }
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, cause.getMessage());
+        });
+    }
+
+    private Map<String, Object> toResponse(ClassificationResult result) {
         Map<String, Object> response = new HashMap<>();
-        String result = runModelClassification(imageBytes);
-        response.put("result", result);
+        response.put("result", result.getLabel());
+        response.put("confidence", result.getConfidence());
 
-        // Simulated bounding box (this should come from your model or detection logic)
         Map<String, Integer> boundingBox = new HashMap<>();
-        boundingBox.put("x", 100);
-        boundingBox.put("y", 150);
-        boundingBox.put("width", 200);
-        boundingBox.put("height", 100);
-
+        boundingBox.put("x", result.getX());
+        boundingBox.put("y", result.getY());
+        boundingBox.put("width", result.getWidth());
+        boundingBox.put("height", result.getHeight());
         response.put("boundingBox", boundingBox);
 
         return response;
     }
 
-    // Simulated model classification (randomly returns plastic, metal, or organic)
-    private String runModelClassification(byte[] imageBytes) {
-        // Simulate classification logic (replace with actual model inference)
-        String[] wasteTypes = {"Plastic", "Metal", "Organic","Glass","Paper","Human"};
-        return wasteTypes[new Random().nextInt(wasteTypes.length)];
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", message);
+        return ResponseEntity.status(status).body(response);
     }
 }
-
@@ -4,10 +4,16 @@ import com.weekend_45.Ecobin.entity.WastePickupRequest;
 import com.weekend_45.Ecobin.entity.WasteReporting;
 import com.weekend_45.Ecobin.exception.WasteReportingNotFoundException;
 import com.weekend_45.Ecobin.repository.WastePickupRequestRepository;
+import com.weekend_45.Ecobin.service.Geo;
+import com.weekend_45.Ecobin.service.RecurringPickupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
@@ -16,8 +22,12 @@ public class WastePickupRequestController {
     @Autowired
     private WastePickupRequestRepository wastePickupRequestRepository;
 
+    @Autowired
+    private RecurringPickupService recurringPickupService;
+
     @PostMapping("/public/addRequest")
     WastePickupRequest addRequest(@RequestBody WastePickupRequest addRequest){
+        validCoordinates(addRequest);
         return wastePickupRequestRepository.save(addRequest);
     }
 
@@ -34,16 +44,33 @@ public class WastePickupRequestController {
 
     @PutMapping("/public/updateWasteRequest/{id}")
     WastePickupRequest updateReportRequest(@RequestBody WastePickupRequest newReportRequest,@PathVariable Long id){
-        return wastePickupRequestRepository.findById(id)
-                .map(wastePickupRequest ->{
-                    wastePickupRequest.setName(newReportRequest.getName());
-                    wastePickupRequest.setAddress(newReportRequest.getAddress());
-                    wastePickupRequest.setMobile(newReportRequest.getMobile());
-                    wastePickupRequest.setWasteType(newReportRequest.getWasteType());
-                    wastePickupRequest.setQuantity(newReportRequest.getQuantity());
-                    wastePickupRequest.setFrequencyPickup(newReportRequest.getFrequencyPickup());
-                    return wastePickupRequestRepository.save(wastePickupRequest);
-                }).orElseThrow(()->new WasteReportingNotFoundException(id));
+        validCoordinates(newReportRequest);
+        WastePickupRequest wastePickupRequest = wastePickupRequestRepository.findById(id)
+                .orElseThrow(()->new WasteReportingNotFoundException(id));
+
+        // Coordinates are kept when the request does not send them
+        Double latitude = newReportRequest.getLatitude() != null ? newReportRequest.getLatitude() : wastePickupRequest.getLatitude();
+        Double longitude = newReportRequest.getLatitude() != null ? newReportRequest.getLongitude() : wastePickupRequest.getLongitude();
+        boolean occurrencesChanged = !Objects.equals(wastePickupRequest.getFrequencyPickup(), newReportRequest.getFrequencyPickup())
+                || !Objects.equals(wastePickupRequest.getAddress(), newReportRequest.getAddress())
+                || !Objects.equals(wastePickupRequest.getWasteType(), newReportRequest.getWasteType())
+                || !Objects.equals(wastePickupRequest.getLatitude(), latitude)
+                || !Objects.equals(wastePickupRequest.getLongitude(), longitude);
+
+        wastePickupRequest.setName(newReportRequest.getName());
+        wastePickupRequest.setAddress(newReportRequest.getAddress());
+        wastePickupRequest.setMobile(newReportRequest.getMobile());
+        wastePickupRequest.setWasteType(newReportRequest.getWasteType());
+        wastePickupRequest.setQuantity(newReportRequest.getQuantity());
+        wastePickupRequest.setFrequencyPickup(newReportRequest.getFrequencyPickup());
+        wastePickupRequest.setLatitude(latitude);
+        wastePickupRequest.setLongitude(longitude);
+        WastePickupRequest saved = wastePickupRequestRepository.save(wastePickupRequest);
+
+        if (occurrencesChanged){
+            recurringPickupService.rescheduled(saved);
+        }
+        return saved;
     }
 
     @DeleteMapping("/public/deleteWasteRequest/{id}")
@@ -53,9 +80,21 @@ public class WastePickupRequestController {
         }
 
         wastePickupRequestRepository.deleteById(id);
+        recurringPickupService.cancelled(id);
         return "Waste reporting id "+id+"has been deleted success.";
     }
 
+    // Expands recurring requests into collection schedules now instead of at the next scheduled run
+    @PostMapping("/admin/pickups/recurring/expand")
+    Map<String, Long> expandRecurringRequests(){
+        return recurringPickupService.expand();
+    }
 
-
+    private static void validCoordinates(WastePickupRequest request) {
+        try {
+            Geo.requireValid(request.getLatitude(), request.getLongitude());
+        }catch (IllegalArgumentException e){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 }
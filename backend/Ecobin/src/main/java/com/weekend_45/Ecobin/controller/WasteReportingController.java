@@ -1,31 +1,56 @@
 package com.weekend_45.Ecobin.controller;
 
+import com.weekend_45.Ecobin.dto.WasteReportingPage;
+import com.weekend_45.Ecobin.dto.WasteReportingSummary;
 import com.weekend_45.Ecobin.entity.WasteReporting;
 import com.weekend_45.Ecobin.repository.WasteReportingRepo;
+import com.weekend_45.Ecobin.service.Geo;
+import com.weekend_45.Ecobin.service.WasteReportExportService;
+import com.weekend_45.Ecobin.storage.BlobStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
 public class WasteReportingController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private WasteReportingRepo wasteReportingRepo;
 
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private WasteReportExportService wasteReportExportService;
+
     @PostMapping("/public/addReporting")
     public String addReporting(
             @RequestParam("wasteTitle") String wasteTitle,
-            @RequestParam("date") String date,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam("wasteType") String wasteType,
             @RequestParam("wasteWeight") Integer wasteWeight,
             @RequestParam("wasteLocation") String wasteLocation,
             @RequestParam("description") String description,
             @RequestParam("reword") Integer reword,
             @RequestParam("customerName") String customerName,
-            @RequestParam("wasteImage") MultipartFile wasteImage
+            @RequestParam("wasteImage") MultipartFile wasteImage,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude
     ){
         try{
             WasteReporting wasteReporting = new WasteReporting();
@@ -35,11 +60,14 @@ public class WasteReportingController {
             wasteReporting.setWasteType(wasteType);
             wasteReporting.setWasteWeight(wasteWeight);
             wasteReporting.setWasteLocation(wasteLocation);
+            Geo.requireValid(latitude, longitude);
+            wasteReporting.setLatitude(latitude);
+            wasteReporting.setLongitude(longitude);
             wasteReporting.setReword(reword);
             wasteReporting.setCustomerName(customerName);
             wasteReporting.setDescription(description);
 
-            wasteReporting.setWasteImage(wasteImage.getBytes());
+            wasteReporting.setWasteImageKey(blobStore.store(wasteImage));
 
             wasteReportingRepo.save(wasteReporting);
 
@@ -55,6 +83,54 @@ public class WasteReportingController {
         return wasteReportingRepo.findAll();
     }
 
+    // Keyset page over report ids, without image bytes, optionally limited to a date range
+    @GetMapping("/public/reports")
+    public WasteReportingPage getReportPage(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ){
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long afterId = after == null ? 0L : after;
+
+        // Read one extra row to know whether another page exists
+        List<WasteReportingSummary> rows = wasteReportingRepo.findSummariesAfter(afterId, from, to, Limit.of(pageSize + 1));
+
+        Long next = null;
+        if (rows.size() > pageSize){
+            rows = rows.subList(0, pageSize);
+            next = rows.get(pageSize - 1).getId();
+        }
+
+        return new WasteReportingPage(rows, next);
+    }
+
+    // Streams every matching report as NDJSON (default) or CSV. Image bytes are left out unless
+    // images=true; a plain download link keeps the file out of the browser tab's memory.
+    @GetMapping("/public/reports/export")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "images", defaultValue = "false") boolean images
+    ){
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)){
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = csv
+                ? out -> wasteReportExportService.writeCsv(from, to, images, out)
+                : out -> wasteReportExportService.writeNdjson(from, to, images, out);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "waste-reports.csv" : "waste-reports.ndjson").build().toString())
+                .body(body);
+    }
+
     @GetMapping("/public/getReportById/{id}")
     public WasteReporting getWasteReportingById(@PathVariable Long id){
         return wasteReportingRepo.findById(id)
@@ -66,14 +142,16 @@ public class WasteReportingController {
     public String updateWasteReporting(
             @PathVariable Long id,
             @RequestParam("wasteTitle") String wasteTitle,
-            @RequestParam("date") String date,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam("wasteType") String wasteType,
             @RequestParam("wasteWeight") Integer wasteWeight,
             @RequestParam("wasteLocation") String wasteLocation,
             @RequestParam("description") String description,
             @RequestParam("reword") Integer reword,
             @RequestParam("customerName") String customerName,
-            @RequestParam(value = "wasteImage",required = false) MultipartFile wasteImage
+            @RequestParam(value = "wasteImage",required = false) MultipartFile wasteImage,
+            @RequestParam(value = "latitude", required = false) Double latitude,
+            @RequestParam(value = "longitude", required = false) Double longitude
     ){
 
         try {
@@ -85,12 +163,18 @@ public class WasteReportingController {
             wasteReporting.setWasteType(wasteType);
             wasteReporting.setWasteWeight(wasteWeight);
             wasteReporting.setWasteLocation(wasteLocation);
+            // Coordinates are kept when the form does not send them, like the image
+            Geo.requireValid(latitude, longitude);
+            if (latitude != null){
+                wasteReporting.setLatitude(latitude);
+                wasteReporting.setLongitude(longitude);
+            }
             wasteReporting.setReword(reword);
             wasteReporting.setCustomerName(customerName);
             wasteReporting.setDescription(description);
 
             if (wasteImage != null && !wasteImage.isEmpty()){
-                wasteReporting.setWasteImage(wasteImage.getBytes());
+                wasteReporting.setWasteImageKey(blobStore.store(wasteImage));
             }
 
             wasteReportingRepo.save(wasteReporting);
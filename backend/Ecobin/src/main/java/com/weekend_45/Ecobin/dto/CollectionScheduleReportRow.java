@@ -0,0 +1,21 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Columns printed on a collection schedule report; the truck image is never read
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionScheduleReportRow {
+
+    private Long id;
+    private String driverName;
+    private String wasteType;
+    private LocalDateTime collectionDate;
+    private String location;
+    private String status;
+}
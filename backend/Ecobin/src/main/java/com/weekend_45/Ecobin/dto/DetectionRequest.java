@@ -0,0 +1,14 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+// What a client may send for a detection; the id is always assigned by the server
+@Data
+public class DetectionRequest {
+
+    private String objectType;
+    private double confidence;
+    private Instant timestamp;
+}
@@ -0,0 +1,20 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverRoute {
+
+    private String driverName;
+    // In visiting order
+    private List<RouteStop> stops;
+    private double distanceKm;
+    // Distance of the same stops in collection time order, before planning
+    private double baselineKm;
+}
@@ -0,0 +1,30 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A report, schedule or pickup request found by a radius or nearest query
+@Data
+@NoArgsConstructor
+public class GeoHit {
+
+    // report, schedule or pickup; id is the row id in that table
+    private String type;
+    private Long id;
+    // Waste title, driver name or requester name
+    private String label;
+    private String location;
+    private String wasteType;
+    private Double latitude;
+    private Double longitude;
+    private double distanceMeters;
+
+    public GeoHit(Long id, String label, String location, String wasteType, Double latitude, Double longitude) {
+        this.id = id;
+        this.label = label;
+        this.location = location;
+        this.wasteType = wasteType;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,33 @@
+package com.weekend_45.Ecobin.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// State of a bulk import, polled through /admin/imports/{id}
+@Data
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private String id;
+    private String type;
+    private String format;
+    private volatile Status status;
+    private Instant createdAt;
+    private volatile Instant finishedAt;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long failed;
+    // Why the job stopped early; rows already imported stay
+    private volatile String error;
+    // The first rows that could not be imported, up to ecobin.imports.max-errors
+    private final List<ImportRowError> errors = new CopyOnWriteArrayList<>();
+
+    @JsonIgnore
+    private Path file;
+}
@@ -0,0 +1,12 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// A row a bulk import skipped; line is where the row starts in the uploaded file
+@Data
+@AllArgsConstructor
+public class ImportRowError {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutePlan {
+
+    private LocalDate date;
+    private boolean applied;
+    private List<DriverRoute> routes;
+    private double distanceKm;
+    private double baselineKm;
+    // Pending schedules left out of the routes: no coordinates, or no driver and none to give them to
+    private List<Long> unroutedScheduleIds;
+    // Pickup requests no driver could take because no driver has a located stop that day
+    private List<Long> unassignedPickupIds;
+}
@@ -0,0 +1,18 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStop {
+
+    // Set for every stop once the plan is applied; pickupRequestId only for stops planned from a request
+    private Long scheduleId;
+    private Long pickupRequestId;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,7 @@
+package com.weekend_45.Ecobin.dto;
+
+import java.time.LocalDateTime;
+
+// Optional filters for a schedule report; null means no restriction. driver matches any part of the name.
+public record ScheduleReportFilter(LocalDateTime from, LocalDateTime to, String status, String location, String driver) {
+}
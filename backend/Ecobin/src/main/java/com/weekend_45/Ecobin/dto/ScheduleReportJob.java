@@ -0,0 +1,25 @@
+package com.weekend_45.Ecobin.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+// State of a report generated in the background, polled through /public/schedules/report/jobs/{id}
+@Data
+public class ScheduleReportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private String id;
+    private String format;
+    private volatile Status status;
+    private Instant createdAt;
+    private volatile Instant finishedAt;
+    private volatile long rows;
+    private volatile String error;
+
+    @JsonIgnore
+    private Path file;
+}
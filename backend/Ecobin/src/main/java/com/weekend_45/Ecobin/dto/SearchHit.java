@@ -0,0 +1,18 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+
+    // report, pickup or contact; id is the row id in that table
+    private String type;
+    private long id;
+    private String title;
+    private String subtitle;
+    private float score;
+}
@@ -0,0 +1,19 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+
+    private long total;
+    private List<SearchHit> hits;
+    // Counts per facet value over all matches, not just the returned page
+    private Map<String, List<FacetCount>> facets;
+}
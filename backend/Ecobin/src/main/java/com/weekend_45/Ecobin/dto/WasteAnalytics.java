@@ -0,0 +1,21 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class WasteAnalytics {
+
+    private LocalDate from;
+    private LocalDate to;
+    private long reportCount;
+    private long totalWeight;
+    private double averageWeight;
+    private String mostCommonType;
+    private double recyclingRate;
+    private List<WastePeriodTotal> monthly;
+    private List<WastePeriodTotal> daily;
+    private List<WasteTypeTotal> byType;
+}
@@ -0,0 +1,26 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WastePeriodTotal {
+
+    // yyyy-MM for monthly totals, yyyy-MM-dd for daily totals
+    private String period;
+    private long count;
+    private long totalWeight;
+
+    public WastePeriodTotal(LocalDate day, long count, long totalWeight) {
+        this(day.toString(), count, totalWeight);
+    }
+
+    public WastePeriodTotal(int year, int month, long count, long totalWeight) {
+        this(String.format("%04d-%02d", year, month), count, totalWeight);
+    }
+}
@@ -0,0 +1,17 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteReportingPage {
+
+    private List<WasteReportingSummary> items;
+    // Id to pass as "after" for the following page, null on the last page
+    private Long next;
+}
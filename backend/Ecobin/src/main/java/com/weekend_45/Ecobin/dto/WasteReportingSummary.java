@@ -0,0 +1,25 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Listing view of WasteReporting without the image column
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteReportingSummary {
+
+    private Long id;
+    private String wasteTitle;
+    private LocalDate date;
+    private String wasteType;
+    private Integer wasteWeight;
+    private String wasteLocation;
+    private String description;
+    private Integer reword;
+    private String customerName;
+    private String wasteImageKey;
+}
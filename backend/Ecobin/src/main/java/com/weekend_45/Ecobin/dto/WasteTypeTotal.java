@@ -0,0 +1,15 @@
+package com.weekend_45.Ecobin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteTypeTotal {
+
+    private String wasteType;
+    private long count;
+    private long totalWeight;
+}
@@ -3,18 +3,38 @@ package com.weekend_45.Ecobin.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_collection_schedule_date", columnList = "collection_at"),
+        @Index(name = "idx_collection_schedule_status", columnList = "status, collection_at"),
+        @Index(name = "idx_collection_schedule_type", columnList = "waste_type"),
+        @Index(name = "idx_collection_schedule_geo", columnList = "latitude, longitude"),
+        @Index(name = "uk_collection_schedule_pickup", columnList = "pickup_request_id", unique = true),
+        @Index(name = "uk_collection_schedule_recurring", columnList = "recurring_request_id, collection_at", unique = true)
+})
 public class CollectionSchedule {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "collection_schedule_seq")
+    @SequenceGenerator(name = "collection_schedule_seq", sequenceName = "collection_schedule_seq", allocationSize = 50)
     private Long id;
     private String driverName;
     private String wasteType;
-    private String collectionDate;
+    // Typed replacement for the legacy free-form "collection_date" column, see TemporalColumnMigration
+    @Column(name = "collection_at")
+    private LocalDateTime collectionDate;
     private String location;
+    // Optional WGS84 position of location, used by the radius and nearest queries
+    private Double latitude;
+    private Double longitude;
+    // Position in the driver's route for the day, set by RoutePlanner
+    private Integer routeOrder;
+    // The pickup request this stop was planned from, if any
+    private Long pickupRequestId;
+    // The recurring pickup request this is one occurrence of, see RecurringPickupService
+    private Long recurringRequestId;
     private String status;
     private String remark;
 
@@ -34,14 +54,14 @@ public class CollectionSchedule {
         this.status = status;
     }
 
-    @Lob
-    private  byte[] truckImage;
+    // Blob store key of the uploaded image, served from /public/images/{key}
+    private String truckImageKey;
 
-    public String getCollectionDate() {
+    public LocalDateTime getCollectionDate() {
         return collectionDate;
     }
 
-    public void setCollectionDate(String collectionDate) {
+    public void setCollectionDate(LocalDateTime collectionDate) {
         this.collectionDate = collectionDate;
     }
 
@@ -69,12 +89,12 @@ public class CollectionSchedule {
         this.location = location;
     }
 
-    public byte[] getTruckImage() {
-        return truckImage;
+    public String getTruckImageKey() {
+        return truckImageKey;
     }
 
-    public void setTruckImage(byte[] truckImage) {
-        this.truckImage = truckImage;
+    public void setTruckImageKey(String truckImageKey) {
+        this.truckImageKey = truckImageKey;
     }
 
     public String getWasteType() {
@@ -1,16 +1,21 @@
 package com.weekend_45.Ecobin.entity;
 
+import com.weekend_45.Ecobin.search.SearchIndexListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 @Data
 @Entity
+@EntityListeners(SearchIndexListener.class)
 public class ContactUs {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contact_us_seq")
+    @SequenceGenerator(name = "contact_us_seq", sequenceName = "contact_us_seq", allocationSize = 50)
     private Integer id;
     private String name;
     private String email;
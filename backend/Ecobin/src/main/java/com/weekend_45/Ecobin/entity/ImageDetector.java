@@ -1,12 +1,32 @@
 package com.weekend_45.Ecobin.entity;
 
-import java.sql.Date;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 
+import java.time.Instant;
+
+@Entity
 public class ImageDetector {
 
+    // Pooled ids are handed out in memory, so Hibernate can batch the inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_detector_seq")
+    @SequenceGenerator(name = "image_detector_seq", sequenceName = "image_detector_seq", allocationSize = 50)
+    private Long id;
     private String objectType;
     private double confidence;
-    private Date timestamp;
+    private Instant timestamp;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
 
     public String getObjectType() {
         return objectType;
@@ -24,11 +44,11 @@ public class ImageDetector {
         this.confidence = confidence;
     }
 
-    public Date getTimestamp() {
+    public Instant getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(Date timestamp) {
+    public void setTimestamp(Instant timestamp) {
         this.timestamp = timestamp;
     }
 }
@@ -15,7 +15,8 @@ import java.util.List;
 public class OurUsers implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "signup_seq")
+    @SequenceGenerator(name = "signup_seq", sequenceName = "signup_seq", allocationSize = 50)
     private Integer id;
 
     private String email;
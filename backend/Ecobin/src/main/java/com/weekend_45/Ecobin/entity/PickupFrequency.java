@@ -0,0 +1,61 @@
+package com.weekend_45.Ecobin.entity;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// How often a recurring pickup request is collected. Occurrences are counted from a start date, so a
+// monthly request started on the 31st falls on the last day of shorter months and then returns to the 31st.
+public enum PickupFrequency {
+    DAILY(1, "daily"),
+    // "recurring" is what the request form has always sent
+    WEEKLY(7, "weekly", "recurring"),
+    BIWEEKLY(14, "bi-weekly", "biweekly", "fortnightly"),
+    MONTHLY(0, "monthly");
+
+    private final int days;
+    private final List<String> names;
+
+    PickupFrequency(int days, String... names) {
+        this.days = days;
+        this.names = List.of(names);
+    }
+
+    // null for one-time requests and anything unrecognised
+    public static PickupFrequency parse(String frequencyPickup) {
+        if (frequencyPickup == null){
+            return null;
+        }
+        String name = frequencyPickup.trim().toLowerCase(Locale.ROOT);
+        for (PickupFrequency frequency : values()){
+            if (frequency.names.contains(name)){
+                return frequency;
+            }
+        }
+        return null;
+    }
+
+    // Every spelling parse accepts, lower case
+    public static List<String> names() {
+        return Arrays.stream(values()).flatMap(frequency -> frequency.names.stream()).toList();
+    }
+
+    // The first occurrence on or after date
+    public LocalDate firstOnOrAfter(LocalDate start, LocalDate date) {
+        if (!date.isAfter(start)){
+            return start;
+        }
+        if (this == MONTHLY){
+            long months = Math.max(0, ChronoUnit.MONTHS.between(start, date) - 1);
+            LocalDate occurrence = start.plusMonths(months);
+            while (occurrence.isBefore(date)){
+                occurrence = start.plusMonths(++months);
+            }
+            return occurrence;
+        }
+        long periods = Math.floorDiv(ChronoUnit.DAYS.between(start, date) + days - 1, days);
+        return start.plusDays(periods * days);
+    }
+}
@@ -0,0 +1,37 @@
+package com.weekend_45.Ecobin.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Running total of a customer's reward ledger, see RewardBalanceWriter
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_reward_balance_rank", columnList = "balance, customer_name"))
+public class RewardBalance {
+
+    @Id
+    @Column(length = 191)
+    private String customerName;
+    private long balance;
+    private LocalDateTime updatedAt;
+    // Bumped by every write, including the SQL upserts, so read-modify-write updates detect each other
+    @Version
+    @JsonIgnore
+    private long version;
+
+    public RewardBalance(String customerName, long balance, LocalDateTime updatedAt) {
+        this.customerName = customerName;
+        this.balance = balance;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.weekend_45.Ecobin.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Whether every reward_balance write-behind amount reached the table, see RewardBalanceWriter. clean is
+// cleared while a write-behind run is active and set again once its final flush succeeds.
+@Entity
+@Data
+public class RewardFlushState {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+    private boolean clean;
+    private LocalDateTime updatedAt;
+}
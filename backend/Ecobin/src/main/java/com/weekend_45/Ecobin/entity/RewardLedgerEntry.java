@@ -0,0 +1,35 @@
+package com.weekend_45.Ecobin.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// One change to a customer's reward points. Rows are only ever inserted, by RewardLedgerService; a
+// customer's balance is the sum of their entries.
+@Entity
+@Data
+@Immutable
+@Table(indexes = {
+        @Index(name = "idx_reward_ledger_customer", columnList = "customer_name, id"),
+        @Index(name = "idx_reward_ledger_report", columnList = "report_id")
+})
+public class RewardLedgerEntry {
+
+    public static final String OPENING = "OPENING";
+    public static final String REPORTED = "REPORTED";
+    public static final String ADJUSTED = "ADJUSTED";
+    public static final String REVERSED = "REVERSED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(length = 191)
+    private String customerName;
+    private Long reportId;
+    private long points;
+    @Column(length = 16)
+    private String reason;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.weekend_45.Ecobin.entity;
+
+// Who a report credits and with how many points, as last read from or written to the database
+public record RewardSnapshot(String customerName, int points) {
+
+    // Longest customer name the ledger stores
+    public static final int MAX_NAME = 191;
+
+    public static RewardSnapshot of(WasteReporting report) {
+        String name = report.getCustomerName() != null ? report.getCustomerName().trim() : "";
+        return new RewardSnapshot(name.length() > MAX_NAME ? name.substring(0, MAX_NAME) : name,
+                report.getReword() != null ? report.getReword() : 0);
+    }
+
+    // Reports without a customer or without points leave no trace in the ledger
+    public boolean counts() {
+        return !customerName.isEmpty() && points != 0;
+    }
+}
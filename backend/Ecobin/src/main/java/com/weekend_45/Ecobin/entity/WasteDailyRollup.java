@@ -0,0 +1,18 @@
+package com.weekend_45.Ecobin.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import lombok.Data;
+
+// Running totals of waste reports per day and waste type, kept next to WasteRollup. Daily charts
+// and the partial months at the ends of a date range are read from here instead of the reports.
+@Entity
+@Data
+public class WasteDailyRollup {
+
+    @EmbeddedId
+    private WasteDailyRollupId id;
+    private long totalWeight;
+    private long reportCount;
+    private long totalReward;
+}
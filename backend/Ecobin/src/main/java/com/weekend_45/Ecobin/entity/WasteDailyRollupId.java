@@ -0,0 +1,22 @@
+package com.weekend_45.Ecobin.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteDailyRollupId implements Serializable {
+
+    @Column(name = "report_date")
+    private LocalDate reportDate;
+    @Column(length = WasteRollupSnapshot.MAX_WASTE_TYPE)
+    private String wasteType;
+}
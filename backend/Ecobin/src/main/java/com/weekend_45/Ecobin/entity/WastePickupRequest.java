@@ -1,24 +1,68 @@
 package com.weekend_45.Ecobin.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.weekend_45.Ecobin.search.SearchIndexListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Data
+@Table(indexes = {
+        @Index(name = "idx_waste_pickup_request_geo", columnList = "latitude, longitude"),
+        @Index(name = "idx_waste_pickup_request_next", columnList = "next_occurrence")
+})
 public class WastePickupRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waste_pickup_request_seq")
+    @SequenceGenerator(name = "waste_pickup_request_seq", sequenceName = "waste_pickup_request_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String address;
+    // Optional WGS84 position of address, used by the radius and nearest queries
+    private Double latitude;
+    private Double longitude;
     private Integer mobile;
     private String wasteType;
     private Integer quantity;
     private String frequencyPickup;
 
+    // Parsed from frequencyPickup; null for one-time requests
+    @Enumerated(EnumType.STRING)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private PickupFrequency recurrence;
+    // Occurrences fall on this date plus whole periods
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDate recurrenceStart;
+    // First date not yet expanded into a collection schedule, see RecurringPickupService
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDate nextOccurrence;
+
+    // A new or changed frequency starts a fresh series today
+    @PrePersist
+    @PreUpdate
+    public void deriveRecurrence() {
+        PickupFrequency parsed = PickupFrequency.parse(frequencyPickup);
+        if (parsed != recurrence){
+            recurrence = parsed;
+            recurrenceStart = parsed != null ? LocalDate.now() : null;
+            nextOccurrence = recurrenceStart;
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,26 +1,67 @@
 package com.weekend_45.Ecobin.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.weekend_45.Ecobin.reward.RewardLedgerListener;
+import com.weekend_45.Ecobin.search.SearchIndexListener;
+import com.weekend_45.Ecobin.service.WasteRollupListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Entity
 @Data
+@EntityListeners({WasteRollupListener.class, RewardLedgerListener.class, SearchIndexListener.class})
+@Table(indexes = {
+        @Index(name = "idx_waste_reporting_date", columnList = "report_date"),
+        @Index(name = "idx_waste_reporting_type", columnList = "waste_type"),
+        @Index(name = "idx_waste_reporting_geo", columnList = "latitude, longitude")
+})
 public class WasteReporting {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waste_reporting_seq")
+    @SequenceGenerator(name = "waste_reporting_seq", sequenceName = "waste_reporting_seq", allocationSize = 50)
     private Long id;
     private String wasteTitle;
-    private String date;
+    // Typed replacement for the legacy free-form "date" column, see TemporalColumnMigration
+    @Column(name = "report_date")
+    private LocalDate date;
     private String wasteType;
     private Integer wasteWeight;
     private String wasteLocation;
+    // Optional WGS84 position of wasteLocation, used by the radius and nearest queries
+    private Double latitude;
+    private Double longitude;
     private String description;
     private Integer reword;
     private String customerName;
 
-    @Lob
-    private byte[] wasteImage;
+    // Blob store key of the uploaded image, served from /public/images/{key}
+    private String wasteImageKey;
+
+    // State the rollups currently account for, so updates can move the report between buckets
+    private transient WasteRollupSnapshot rollupSnapshot;
+    // Customer and points the reward ledger currently credits for this report
+    private transient RewardSnapshot rewardSnapshot;
+
+    @JsonIgnore
+    public WasteRollupSnapshot getRollupSnapshot() {
+        return rollupSnapshot;
+    }
+
+    public void setRollupSnapshot(WasteRollupSnapshot rollupSnapshot) {
+        this.rollupSnapshot = rollupSnapshot;
+    }
+
+    @JsonIgnore
+    public RewardSnapshot getRewardSnapshot() {
+        return rewardSnapshot;
+    }
+
+    public void setRewardSnapshot(RewardSnapshot rewardSnapshot) {
+        this.rewardSnapshot = rewardSnapshot;
+    }
 
     public String getCustomerName() {
         return customerName;
@@ -30,11 +71,11 @@ public class WasteReporting {
         this.customerName = customerName;
     }
 
-    public String getDate() {
+    public LocalDate getDate() {
         return date;
     }
 
-    public void setDate(String date) {
+    public void setDate(LocalDate date) {
         this.date = date;
     }
 
@@ -62,12 +103,12 @@ public class WasteReporting {
         this.reword = reword;
     }
 
-    public byte[] getWasteImage() {
-        return wasteImage;
+    public String getWasteImageKey() {
+        return wasteImageKey;
     }
 
-    public void setWasteImage(byte[] wasteImage) {
-        this.wasteImage = wasteImage;
+    public void setWasteImageKey(String wasteImageKey) {
+        this.wasteImageKey = wasteImageKey;
     }
 
     public String getWasteTitle() {
@@ -0,0 +1,18 @@
+package com.weekend_45.Ecobin.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import lombok.Data;
+
+// Running totals of waste reports per month, waste type and location. Maintained by
+// WasteRollupListener on every report write so dashboards read buckets instead of reports.
+@Entity
+@Data
+public class WasteRollup {
+
+    @EmbeddedId
+    private WasteRollupId id;
+    private long totalWeight;
+    private long reportCount;
+    private long totalReward;
+}
@@ -0,0 +1,24 @@
+package com.weekend_45.Ecobin.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WasteRollupId implements Serializable {
+
+    // yyyy-MM taken from the report date
+    @Column(name = "report_month", length = 7)
+    private String reportMonth;
+    @Column(length = WasteRollupSnapshot.MAX_WASTE_TYPE)
+    private String wasteType;
+    @Column(length = WasteRollupSnapshot.MAX_LOCATION)
+    private String location;
+}
@@ -0,0 +1,30 @@
+package com.weekend_45.Ecobin.entity;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// The part of a report that counts towards its rollup buckets, as last read from or written to the database.
+// reportDate is null for undated reports, which only have a monthly bucket.
+public record WasteRollupSnapshot(LocalDate reportDate, String reportMonth, String wasteType, String location, int weight, int reward) {
+
+    // Longest waste type and location the rollup keys store
+    public static final int MAX_WASTE_TYPE = 100;
+    public static final int MAX_LOCATION = 191;
+
+    public static WasteRollupSnapshot of(WasteReporting report) {
+        return new WasteRollupSnapshot(
+                report.getDate(),
+                report.getDate() != null ? YearMonth.from(report.getDate()).toString() : "",
+                truncate(report.getWasteType(), MAX_WASTE_TYPE),
+                truncate(report.getWasteLocation(), MAX_LOCATION),
+                report.getWasteWeight() != null ? report.getWasteWeight() : 0,
+                report.getReword() != null ? report.getReword() : 0);
+    }
+
+    private static String truncate(String value, int length) {
+        if (value == null){
+            return "";
+        }
+        return value.length() > length ? value.substring(0, length) : value;
+    }
+}
@@ -0,0 +1,7 @@
+package com.weekend_45.Ecobin.exception;
+
+public class ClassifierUnavailableException extends RuntimeException{
+    public ClassifierUnavailableException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.weekend_45.Ecobin.exception;
+
+public class PasswordHashingBusyException extends RuntimeException{
+    public PasswordHashingBusyException(){
+        super("Too many sign-in requests, please retry shortly");
+    }
+}
@@ -0,0 +1,371 @@
+package com.weekend_45.Ecobin.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.weekend_45.Ecobin.dto.ImportJob;
+import com.weekend_45.Ecobin.dto.ImportRowError;
+import com.weekend_45.Ecobin.search.SearchDocument;
+import com.weekend_45.Ecobin.search.SearchIndex;
+import com.weekend_45.Ecobin.service.FinishedJobExpiry;
+import com.weekend_45.Ecobin.service.RecurringPickupService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Bulk import of waste reports and pickup requests from CSV (with a header row) or NDJSON. The upload
+// is spooled to a temp file and imported in the background: rows are read one at a time, validated,
+// and written in chunks of ecobin.imports.chunk-size rows, one transaction per chunk. A row that does
+// not validate is reported with its line number and skipped. When the database rejects a chunk, the
+// chunk is written again row by row so only the offending rows are skipped.
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    public enum Type {
+        REPORTS(ImportRows.REPORT_FIELDS), PICKUPS(ImportRows.PICKUP_FIELDS);
+
+        private final List<String> fields;
+
+        Type(List<String> fields) {
+            this.fields = fields;
+        }
+
+        // Accepts "report" or "reports" and so on, as used in the URLs
+        public static Optional<Type> parse(String value) {
+            String name = value.toUpperCase(Locale.ROOT);
+            for (Type type : values()){
+                if (name.equals(type.name()) || (name + "S").equals(type.name())){
+                    return Optional.of(type);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    public enum Format { CSV, NDJSON }
+
+    private record Row(long line, Map<String, String> fields, String error) {
+    }
+
+    private interface RowSource {
+        // The next row, or null at the end of the file
+        Row next() throws IOException;
+    }
+
+    private final BulkImportWriter writer;
+    private final SearchIndex searchIndex;
+    private final RecurringPickupService recurringPickupService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final Path importDir;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ImportJob> jobs;
+
+    public BulkImportService(BulkImportWriter writer,
+                             SearchIndex searchIndex,
+                             RecurringPickupService recurringPickupService,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${ecobin.imports.dir:${java.io.tmpdir}/ecobin-imports}") String importDir,
+                             @Value("${ecobin.imports.chunk-size:5000}") int chunkSize,
+                             @Value("${ecobin.imports.max-errors:1000}") int maxErrors,
+                             @Value("${ecobin.imports.threads:1}") int threads,
+                             @Value("${ecobin.imports.queue-capacity:4}") int queueCapacity,
+                             @Value("${ecobin.imports.job-ttl-minutes:60}") long jobTtlMinutes) throws IOException {
+        this.writer = writer;
+        this.searchIndex = searchIndex;
+        this.recurringPickupService = recurringPickupService;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.importDir = Files.createDirectories(Path.of(importDir));
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-import-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Finished jobs stay pollable for job-ttl-minutes after they complete
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry<String, ImportJob>(job -> job.getFinishedAt() != null,
+                        Duration.ofMinutes(jobTtlMinutes)))
+                .removalListener((String id, ImportJob job, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED){
+                        deleteFile(job);
+                    }
+                })
+                .build();
+    }
+
+    // Spools body to disk and queues the import; throws RejectedExecutionException when too many
+    // imports are pending
+    public ImportJob submit(Type type, Format format, InputStream body) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0){
+            throw new RejectedExecutionException("Too many imports pending");
+        }
+
+        ImportJob job = new ImportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setType(type.name().toLowerCase(Locale.ROOT));
+        job.setFormat(format.name().toLowerCase(Locale.ROOT));
+        job.setStatus(ImportJob.Status.QUEUED);
+        job.setCreatedAt(Instant.now());
+        job.setFile(importDir.resolve(job.getId() + "." + job.getFormat()));
+
+        try {
+            Files.copy(body, job.getFile());
+        }catch (IOException e){
+            deleteFile(job);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, type, format));
+        }catch (RejectedExecutionException e){
+            jobs.invalidate(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ImportJob> job(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private void run(ImportJob job, Type type, Format format) {
+        job.setStatus(ImportJob.Status.RUNNING);
+        try (BufferedReader reader = Files.newBufferedReader(job.getFile(), StandardCharsets.UTF_8)) {
+            RowSource source = format == Format.CSV ? csv(reader, type) : ndjson(reader, type);
+            if (type == Type.REPORTS){
+                importRows(job, source, ImportRows::report, writer::insertReports, report -> report.setId(null));
+            }else {
+                importRows(job, source, ImportRows::pickup, writer::insertPickups, pickup -> pickup.setId(null));
+                expandRecurring(job);
+            }
+            job.setStatus(ImportJob.Status.DONE);
+        }catch (IllegalArgumentException e){
+            // The file itself is unusable, e.g. an unknown CSV column
+            job.setError(e.getMessage());
+            job.setStatus(ImportJob.Status.FAILED);
+        }catch (Exception e){
+            log.warn("Import {} stopped after {} rows", job.getId(), job.getRowsRead(), e);
+            job.setError(e.getMessage());
+            job.setStatus(ImportJob.Status.FAILED);
+        }finally {
+            job.setFinishedAt(Instant.now());
+            deleteFile(job);
+            // Starts the expiry clock now that the job is finished
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private <T> void importRows(ImportJob job, RowSource source, Function<Map<String, String>, T> parser,
+                                Function<List<T>, List<SearchDocument>> insert, Consumer<T> reset) throws IOException {
+        List<T> chunk = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+        Row row;
+        while ((row = source.next()) != null){
+            job.setRowsRead(job.getRowsRead() + 1);
+            if (row.error() != null){
+                rejected(job, row.line(), row.error());
+                continue;
+            }
+            try {
+                chunk.add(parser.apply(row.fields()));
+                lines.add(row.line());
+            }catch (IllegalArgumentException e){
+                rejected(job, row.line(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize){
+                write(job, chunk, lines, insert, reset);
+                chunk.clear();
+                lines.clear();
+            }
+        }
+        write(job, chunk, lines, insert, reset);
+    }
+
+    private <T> void write(ImportJob job, List<T> chunk, List<Long> lines,
+                           Function<List<T>, List<SearchDocument>> insert, Consumer<T> reset) {
+        if (chunk.isEmpty()){
+            return;
+        }
+        try {
+            index(transaction.execute(status -> insert.apply(chunk)));
+            job.setImported(job.getImported() + chunk.size());
+            return;
+        }catch (DataAccessException e){
+            log.debug("Import {} chunk rejected, writing it row by row", job.getId(), e);
+        }
+
+        for (int i = 0; i < chunk.size(); i++){
+            T entity = chunk.get(i);
+            reset.accept(entity);
+            try {
+                index(transaction.execute(status -> insert.apply(List.of(entity))));
+                job.setImported(job.getImported() + 1);
+            }catch (DataAccessException e){
+                reset.accept(entity);
+                rejected(job, lines.get(i), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    // The database write already succeeded; a failed index update is repaired by a rebuild
+    private void index(List<SearchDocument> documents) {
+        try {
+            searchIndex.upsertAll(documents);
+        }catch (IOException e){
+            log.warn("Search index update failed", e);
+        }
+    }
+
+    // Imported recurring requests get their schedules now instead of at the next scheduled run
+    private void expandRecurring(ImportJob job) {
+        if (job.getImported() == 0){
+            return;
+        }
+        try {
+            recurringPickupService.expand();
+        }catch (RuntimeException e){
+            log.warn("Expanding imported recurring pickups failed, the next scheduled run will retry", e);
+        }
+    }
+
+    private void rejected(ImportJob job, long line, String message) {
+        job.setFailed(job.getFailed() + 1);
+        if (job.getErrors().size() < maxErrors){
+            job.getErrors().add(new ImportRowError(line, message));
+        }
+    }
+
+    private RowSource csv(BufferedReader reader, Type type) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null){
+            throw new IllegalArgumentException("The file is empty");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header){
+            columns.add(ImportRows.field(type.fields, name).orElseThrow(() ->
+                    new IllegalArgumentException("Unknown column " + name + ", expected some of " + type.fields)));
+        }
+
+        return () -> {
+            List<String> values = records.next();
+            if (values == null){
+                return null;
+            }
+            if (values.size() != columns.size()){
+                return new Row(records.line(), null, "Expected " + columns.size() + " fields but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < values.size(); i++){
+                fields.put(columns.get(i), values.get(i));
+            }
+            return new Row(records.line(), fields, null);
+        };
+    }
+
+    private RowSource ndjson(BufferedReader reader, Type type) {
+        long[] line = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            if (text == null){
+                return null;
+            }
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            }catch (JsonProcessingException e){
+                return new Row(line[0], null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()){
+                return new Row(line[0], null, "Expected a JSON object");
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ){
+                Map.Entry<String, JsonNode> entry = it.next();
+                Optional<String> field = ImportRows.field(type.fields, entry.getKey());
+                if (field.isEmpty()){
+                    return new Row(line[0], null, "Unknown field " + entry.getKey());
+                }
+                JsonNode value = entry.getValue();
+                if (!value.isValueNode()){
+                    return new Row(line[0], null, entry.getKey() + " must be a string or a number");
+                }
+                fields.put(field.get(), value.isNull() ? null : value.asText());
+            }
+            return new Row(line[0], fields, null);
+        };
+    }
+
+    private static void deleteFile(ImportJob job) {
+        if (job == null || job.getFile() == null){
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.getFile());
+        }catch (IOException e){
+            log.warn("Could not delete import file {}", job.getFile(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        jobs.invalidateAll();
+        jobs.cleanUp();
+    }
+}
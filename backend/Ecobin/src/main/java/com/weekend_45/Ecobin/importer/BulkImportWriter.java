@@ -0,0 +1,94 @@
+package com.weekend_45.Ecobin.importer;
+
+import com.weekend_45.Ecobin.entity.WastePickupRequest;
+import com.weekend_45.Ecobin.entity.WasteReporting;
+import com.weekend_45.Ecobin.entity.WasteRollupSnapshot;
+import com.weekend_45.Ecobin.reward.RewardLedgerService;
+import com.weekend_45.Ecobin.search.SearchDocument;
+import com.weekend_45.Ecobin.service.WasteRollupService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Inserts imported rows with JDBC batches instead of one Hibernate insert per row. The entity
+// listeners do not see these writes, so the rollups, the reward ledger and the search documents are
+// updated here, in bulk, inside the same transaction. MySQL only sends a batch as one statement when
+// the datasource URL sets rewriteBatchedStatements=true.
+@Component
+class BulkImportWriter {
+
+    private static final String INSERT_REPORT =
+            "insert into waste_reporting (id, waste_title, report_date, waste_type, waste_weight, waste_location, " +
+            "latitude, longitude, description, reword, customer_name) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PICKUP =
+            "insert into waste_pickup_request (id, name, address, latitude, longitude, mobile, waste_type, quantity, " +
+            "frequency_pickup, recurrence, recurrence_start, next_occurrence) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WasteRollupService wasteRollupService;
+
+    @Autowired
+    private RewardLedgerService rewardLedgerService;
+
+    @Value("${ecobin.imports.batch-size:500}")
+    private int batchSize;
+
+    // Runs inside the caller's transaction; returns the documents to index once it has committed
+    List<SearchDocument> insertReports(List<WasteReporting> reports) {
+        insert(INSERT_REPORT, reports, report -> new Object[]{report.getId(), report.getWasteTitle(), report.getDate(),
+                report.getWasteType(), report.getWasteWeight(), report.getWasteLocation(), report.getLatitude(),
+                report.getLongitude(), report.getDescription(), report.getReword(), report.getCustomerName()},
+                WasteReporting::setId);
+
+        wasteRollupService.addAll(reports.stream().map(report -> {
+            WasteRollupSnapshot snapshot = WasteRollupSnapshot.of(report);
+            report.setRollupSnapshot(snapshot);
+            return snapshot;
+        }).toList());
+        rewardLedgerService.recordCreated(reports);
+        return reports.stream().map(SearchDocument::of).toList();
+    }
+
+    List<SearchDocument> insertPickups(List<WastePickupRequest> pickups) {
+        insert(INSERT_PICKUP, pickups, pickup -> new Object[]{pickup.getId(), pickup.getName(), pickup.getAddress(),
+                pickup.getLatitude(), pickup.getLongitude(), pickup.getMobile(), pickup.getWasteType(),
+                pickup.getQuantity(), pickup.getFrequencyPickup(),
+                pickup.getRecurrence() != null ? pickup.getRecurrence().name() : null,
+                pickup.getRecurrenceStart(), pickup.getNextOccurrence()},
+                WastePickupRequest::setId);
+        return pickups.stream().map(SearchDocument::of).toList();
+    }
+
+    private <T> void insert(String sql, List<T> rows, Function<T, Object[]> values, BiConsumer<T, Long> setId) {
+        for (T row : rows){
+            setId.accept(row, nextId(row));
+        }
+        jdbcTemplate.batchUpdate(sql, rows, batchSize,
+                (statement, row) -> new ArgumentPreparedStatementSetter(values.apply(row)).setValues(statement));
+    }
+
+    // Ids come from the entity's own pooled generator, so imported rows and JPA inserts share one sequence
+    private long nextId(Object entity) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getEntityPersister(null, entity);
+        return ((Number) ((IdentifierGenerator) persister.getGenerator()).generate(session, entity)).longValue();
+    }
+}
@@ -0,0 +1,103 @@
+package com.weekend_45.Ecobin.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 reader: comma separated, double quotes around fields that contain commas, quotes
+// or line breaks, "" for a quote inside them. Accepts LF and CRLF line ends and skips blank lines and
+// a leading byte order mark.
+final class CsvRecordReader {
+
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private int pushedBack = NONE;
+    private boolean started;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    // Fields of the next record, or null at the end of the input
+    List<String> next() throws IOException {
+        int c = read();
+        if (!started){
+            started = true;
+            if (c == '\uFEFF'){
+                c = read();
+            }
+        }
+        while (c == '\n' || c == '\r'){
+            c = read();
+        }
+        if (c == -1){
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true){
+            if (c == '"' && field.isEmpty()){
+                c = quoted(field);
+            }
+            if (c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+                c = read();
+            }else if (c == '\n' || c == '\r' || c == -1){
+                fields.add(field.toString());
+                if (c == '\r'){
+                    int after = read();
+                    if (after != '\n'){
+                        pushedBack = after;
+                    }
+                }
+                return fields;
+            }else {
+                field.append((char) c);
+                c = read();
+            }
+        }
+    }
+
+    // Line the last record returned by next() starts on
+    long line() {
+        return recordLine;
+    }
+
+    // Reads a quoted field up to its closing quote and returns the character after it
+    private int quoted(StringBuilder field) throws IOException {
+        long start = line;
+        while (true){
+            int c = read();
+            if (c == -1){
+                throw new IOException("Unterminated quoted field starting on line " + start);
+            }
+            if (c == '"'){
+                c = read();
+                if (c != '"'){
+                    return c;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE){
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        int c = in.read();
+        if (c == '\n'){
+            line++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,140 @@
+package com.weekend_45.Ecobin.importer;
+
+import com.weekend_45.Ecobin.entity.WastePickupRequest;
+import com.weekend_45.Ecobin.entity.WasteReporting;
+import com.weekend_45.Ecobin.service.Geo;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+// Turns imported rows into entities. Field names are the JSON property names of the entity, matched
+// ignoring case, spaces, dashes and underscores, so "Waste Type" and waste_type both mean wasteType.
+// A row that does not validate throws IllegalArgumentException with a message for the import job.
+final class ImportRows {
+
+    static final List<String> REPORT_FIELDS = List.of("wasteTitle", "date", "wasteType", "wasteWeight",
+            "wasteLocation", "description", "reword", "customerName", "latitude", "longitude");
+
+    static final List<String> PICKUP_FIELDS = List.of("name", "address", "mobile", "wasteType", "quantity",
+            "frequencyPickup", "latitude", "longitude");
+
+    // Length of the varchar columns Hibernate creates for String fields
+    private static final int MAX_TEXT = 255;
+
+    private ImportRows() {
+    }
+
+    // The field name a column header or JSON key stands for
+    static Optional<String> field(List<String> fields, String name) {
+        String key = key(name);
+        for (String field : fields){
+            if (key(field).equals(key)){
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+
+    static WasteReporting report(Map<String, String> row) {
+        WasteReporting report = new WasteReporting();
+        report.setWasteTitle(required(row, "wasteTitle"));
+        report.setDate(date(row, "date"));
+        report.setWasteType(required(row, "wasteType"));
+        report.setWasteWeight(nonNegative(row, "wasteWeight", true));
+        report.setWasteLocation(required(row, "wasteLocation"));
+        report.setDescription(text(row, "description"));
+        report.setReword(nonNegative(row, "reword", false));
+        report.setCustomerName(text(row, "customerName"));
+        report.setLatitude(decimal(row, "latitude"));
+        report.setLongitude(decimal(row, "longitude"));
+        Geo.requireValid(report.getLatitude(), report.getLongitude());
+        return report;
+    }
+
+    static WastePickupRequest pickup(Map<String, String> row) {
+        WastePickupRequest pickup = new WastePickupRequest();
+        pickup.setName(required(row, "name"));
+        pickup.setAddress(required(row, "address"));
+        pickup.setMobile(integer(row, "mobile"));
+        pickup.setWasteType(required(row, "wasteType"));
+        pickup.setQuantity(nonNegative(row, "quantity", false));
+        pickup.setFrequencyPickup(text(row, "frequencyPickup"));
+        pickup.setLatitude(decimal(row, "latitude"));
+        pickup.setLongitude(decimal(row, "longitude"));
+        Geo.requireValid(pickup.getLatitude(), pickup.getLongitude());
+        pickup.deriveRecurrence();
+        return pickup;
+    }
+
+    private static String text(Map<String, String> row, String field) {
+        String value = row.get(field);
+        if (value == null || value.isBlank()){
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > MAX_TEXT){
+            throw new IllegalArgumentException(field + " is longer than " + MAX_TEXT + " characters");
+        }
+        return value;
+    }
+
+    private static String required(Map<String, String> row, String field) {
+        String value = text(row, field);
+        if (value == null){
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static LocalDate date(Map<String, String> row, String field) {
+        String value = required(row, field);
+        try {
+            return LocalDate.parse(value);
+        }catch (DateTimeParseException e){
+            throw new IllegalArgumentException(field + " must be a date like 2025-02-20, not " + value);
+        }
+    }
+
+    private static Integer integer(Map<String, String> row, String field) {
+        String value = text(row, field);
+        if (value == null){
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        }catch (NumberFormatException e){
+            throw new IllegalArgumentException(field + " must be a whole number, not " + value);
+        }
+    }
+
+    private static Integer nonNegative(Map<String, String> row, String field, boolean required) {
+        if (required){
+            required(row, field);
+        }
+        Integer value = integer(row, field);
+        if (value != null && value < 0){
+            throw new IllegalArgumentException(field + " must not be negative");
+        }
+        return value;
+    }
+
+    private static Double decimal(Map<String, String> row, String field) {
+        String value = text(row, field);
+        if (value == null){
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        }catch (NumberFormatException e){
+            throw new IllegalArgumentException(field + " must be a number, not " + value);
+        }
+    }
+
+    private static String key(String name) {
+        return name.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,7 +1,53 @@
 package com.weekend_45.Ecobin.repository;
 
+import com.weekend_45.Ecobin.dto.CollectionScheduleReportRow;
+import com.weekend_45.Ecobin.dto.GeoHit;
 import com.weekend_45.Ecobin.entity.CollectionSchedule;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CollectionScheduleRepo extends JpaRepository<CollectionSchedule,Long> {
+
+    List<CollectionSchedule> findByCollectionDateBetweenOrderByCollectionDate(LocalDateTime from, LocalDateTime to);
+
+    List<CollectionSchedule> findByStatusAndCollectionDateBetweenOrderByCollectionDate(String status, LocalDateTime from, LocalDateTime to);
+
+    @Query("select new com.weekend_45.Ecobin.dto.CollectionScheduleReportRow(s.id, s.driverName, s.wasteType, " +
+            "s.collectionDate, s.location, s.status) from CollectionSchedule s where s.id > :afterId " +
+            "and (:from is null or s.collectionDate >= :from) and (:to is null or s.collectionDate <= :to) " +
+            "and (:status is null or s.status = :status) and (:location is null or s.location = :location) " +
+            "and (:driver is null or lower(s.driverName) like lower(concat('%', :driver, '%'))) order by s.id asc")
+    List<CollectionScheduleReportRow> findReportRowsAfter(@Param("afterId") Long afterId,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to,
+                                                          @Param("status") String status,
+                                                          @Param("location") String location,
+                                                          @Param("driver") String driver,
+                                                          Limit limit);
+
+    // Bounding-box candidates for the geo queries, read through idx_collection_schedule_geo
+    @Query("select new com.weekend_45.Ecobin.dto.GeoHit(s.id, s.driverName, s.location, s.wasteType, s.latitude, s.longitude) " +
+            "from CollectionSchedule s where s.latitude between :minLat and :maxLat and s.longitude between :minLon and :maxLon " +
+            "and (:wasteType is null or s.wasteType = :wasteType) and (:status is null or s.status = :status)")
+    List<GeoHit> findGeoHitsWithin(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                   @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                   @Param("wasteType") String wasteType, @Param("status") String status);
+
+    // Only the driver and route position are written, so a plan never overwrites edits made while it was computed
+    @Modifying
+    @Query("update CollectionSchedule s set s.driverName = :driverName, s.routeOrder = :routeOrder where s.id = :id")
+    int updateRoute(@Param("id") Long id, @Param("driverName") String driverName, @Param("routeOrder") Integer routeOrder);
+
+    @Query("select s.collectionDate from CollectionSchedule s where s.recurringRequestId = :requestId and s.collectionDate >= :from")
+    List<LocalDateTime> findOccurrenceTimes(@Param("requestId") Long requestId, @Param("from") LocalDateTime from);
+
+    @Modifying
+    @Query("delete from CollectionSchedule s where s.recurringRequestId = :requestId and s.status = :status and s.collectionDate >= :from")
+    int deleteOccurrences(@Param("requestId") Long requestId, @Param("status") String status, @Param("from") LocalDateTime from);
 }
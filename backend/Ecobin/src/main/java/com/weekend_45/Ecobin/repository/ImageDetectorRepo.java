@@ -0,0 +1,7 @@
+package com.weekend_45.Ecobin.repository;
+
+import com.weekend_45.Ecobin.entity.ImageDetector;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImageDetectorRepo extends JpaRepository<ImageDetector,Long> {
+}
@@ -0,0 +1,12 @@
+package com.weekend_45.Ecobin.repository;
+
+import com.weekend_45.Ecobin.entity.RewardBalance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RewardBalanceRepo extends JpaRepository<RewardBalance,String> {
+
+    List<RewardBalance> findAllByOrderByBalanceDescCustomerNameAsc(Limit limit);
+}
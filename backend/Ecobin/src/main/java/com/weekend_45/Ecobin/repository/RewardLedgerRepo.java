@@ -0,0 +1,12 @@
+package com.weekend_45.Ecobin.repository;
+
+import com.weekend_45.Ecobin.entity.RewardLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RewardLedgerRepo extends JpaRepository<RewardLedgerEntry,Long> {
+
+    List<RewardLedgerEntry> findByCustomerNameOrderByIdDesc(String customerName, Limit limit);
+}
@@ -0,0 +1,33 @@
+package com.weekend_45.Ecobin.repository;
+
+import com.weekend_45.Ecobin.dto.WastePeriodTotal;
+import com.weekend_45.Ecobin.dto.WasteTypeTotal;
+import com.weekend_45.Ecobin.entity.WasteDailyRollup;
+import com.weekend_45.Ecobin.entity.WasteDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WasteDailyRollupRepo extends JpaRepository<WasteDailyRollup, WasteDailyRollupId> {
+
+    @Query("select new com.weekend_45.Ecobin.dto.WasteTypeTotal(r.id.wasteType, sum(r.reportCount), sum(r.totalWeight)) " +
+            "from WasteDailyRollup r where (:from is null or r.id.reportDate >= :from) " +
+            "and (:to is null or r.id.reportDate <= :to) and r.reportCount > 0 " +
+            "group by r.id.wasteType")
+    List<WasteTypeTotal> totalsByType(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.weekend_45.Ecobin.dto.WastePeriodTotal(year(r.id.reportDate), month(r.id.reportDate), sum(r.reportCount), sum(r.totalWeight)) " +
+            "from WasteDailyRollup r where (:from is null or r.id.reportDate >= :from) " +
+            "and (:to is null or r.id.reportDate <= :to) and r.reportCount > 0 " +
+            "group by year(r.id.reportDate), month(r.id.reportDate) order by year(r.id.reportDate), month(r.id.reportDate)")
+    List<WastePeriodTotal> totalsByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.weekend_45.Ecobin.dto.WastePeriodTotal(r.id.reportDate, sum(r.reportCount), sum(r.totalWeight)) " +
+            "from WasteDailyRollup r where (:from is null or r.id.reportDate >= :from) " +
+            "and (:to is null or r.id.reportDate <= :to) and r.reportCount > 0 " +
+            "group by r.id.reportDate order by r.id.reportDate")
+    List<WastePeriodTotal> totalsByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
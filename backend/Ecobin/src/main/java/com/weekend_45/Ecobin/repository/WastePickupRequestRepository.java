@@ -1,7 +1,44 @@
 package com.weekend_45.Ecobin.repository;
 
+import com.weekend_45.Ecobin.dto.GeoHit;
 import com.weekend_45.Ecobin.entity.WastePickupRequest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface WastePickupRequestRepository extends JpaRepository<WastePickupRequest,Long> {
+
+    // Bounding-box candidates for the geo queries, read through idx_waste_pickup_request_geo
+    @Query("select new com.weekend_45.Ecobin.dto.GeoHit(p.id, p.name, p.address, p.wasteType, p.latitude, p.longitude) " +
+            "from WastePickupRequest p where p.latitude between :minLat and :maxLat and p.longitude between :minLon and :maxLon " +
+            "and (:wasteType is null or p.wasteType = :wasteType)")
+    List<GeoHit> findGeoHitsWithin(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                   @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                   @Param("wasteType") String wasteType);
+
+    // Located one-time requests that no collection schedule has been planned for yet
+    @Query("select p from WastePickupRequest p where p.latitude is not null and p.longitude is not null and p.recurrence is null " +
+            "and not exists (select 1 from CollectionSchedule s where s.pickupRequestId = p.id) order by p.id")
+    List<WastePickupRequest> findUnscheduledWithCoordinates();
+
+    // Recurring requests with occurrences up to until still to expand. Rows stay locked until the
+    // transaction ends, so two expansions never work on the same request.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from WastePickupRequest p where p.nextOccurrence <= :until order by p.nextOccurrence")
+    List<WastePickupRequest> findDueForExpansion(@Param("until") LocalDate until, Limit limit);
+
+    @Modifying
+    @Query("update WastePickupRequest p set p.nextOccurrence = :nextOccurrence where p.id = :id")
+    int updateNextOccurrence(@Param("id") Long id, @Param("nextOccurrence") LocalDate nextOccurrence);
+
+    // Requests saved before recurrence was parsed from frequencyPickup
+    @Query("select p from WastePickupRequest p where p.recurrence is null and lower(trim(p.frequencyPickup)) in :names")
+    List<WastePickupRequest> findUnparsedRecurring(@Param("names") List<String> names);
 }
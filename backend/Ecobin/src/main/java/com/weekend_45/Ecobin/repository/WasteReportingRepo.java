@@ -1,7 +1,32 @@
 package com.weekend_45.Ecobin.repository;
 
+import com.weekend_45.Ecobin.dto.GeoHit;
+import com.weekend_45.Ecobin.dto.WasteReportingSummary;
 import com.weekend_45.Ecobin.entity.WasteReporting;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface WasteReportingRepo extends JpaRepository<WasteReporting,Long> {
+
+    @Query("select new com.weekend_45.Ecobin.dto.WasteReportingSummary(r.id, r.wasteTitle, r.date, r.wasteType, " +
+            "r.wasteWeight, r.wasteLocation, r.description, r.reword, r.customerName, r.wasteImageKey) " +
+            "from WasteReporting r where r.id > :afterId and (:from is null or r.date >= :from) " +
+            "and (:to is null or r.date <= :to) order by r.id asc")
+    List<WasteReportingSummary> findSummariesAfter(@Param("afterId") Long afterId, @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to, Limit limit);
+
+    List<WasteReporting> findByDateBetween(LocalDate from, LocalDate to);
+
+    // Bounding-box candidates for the geo queries, read through idx_waste_reporting_geo
+    @Query("select new com.weekend_45.Ecobin.dto.GeoHit(r.id, r.wasteTitle, r.wasteLocation, r.wasteType, r.latitude, r.longitude) " +
+            "from WasteReporting r where r.latitude between :minLat and :maxLat and r.longitude between :minLon and :maxLon " +
+            "and (:wasteType is null or r.wasteType = :wasteType)")
+    List<GeoHit> findGeoHitsWithin(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                   @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                   @Param("wasteType") String wasteType);
 }
@@ -0,0 +1,28 @@
+package com.weekend_45.Ecobin.repository;
+
+import com.weekend_45.Ecobin.dto.WastePeriodTotal;
+import com.weekend_45.Ecobin.dto.WasteTypeTotal;
+import com.weekend_45.Ecobin.entity.WasteRollup;
+import com.weekend_45.Ecobin.entity.WasteRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface WasteRollupRepo extends JpaRepository<WasteRollup, WasteRollupId> {
+
+    @Query("select new com.weekend_45.Ecobin.dto.WasteTypeTotal(r.id.wasteType, sum(r.reportCount), sum(r.totalWeight)) " +
+            "from WasteRollup r where (:fromMonth is null or r.id.reportMonth >= :fromMonth) " +
+            "and (:toMonth is null or r.id.reportMonth <= :toMonth) and r.reportCount > 0 " +
+            "and (:fromMonth is null and :toMonth is null or r.id.reportMonth <> '') " +
+            "group by r.id.wasteType")
+    List<WasteTypeTotal> totalsByType(@Param("fromMonth") String fromMonth, @Param("toMonth") String toMonth);
+
+    @Query("select new com.weekend_45.Ecobin.dto.WastePeriodTotal(r.id.reportMonth, sum(r.reportCount), sum(r.totalWeight)) " +
+            "from WasteRollup r where (:fromMonth is null or r.id.reportMonth >= :fromMonth) " +
+            "and (:toMonth is null or r.id.reportMonth <= :toMonth) and r.reportCount > 0 " +
+            "and (:fromMonth is null and :toMonth is null or r.id.reportMonth <> '') " +
+            "group by r.id.reportMonth order by r.id.reportMonth")
+    List<WastePeriodTotal> totalsByMonth(@Param("fromMonth") String fromMonth, @Param("toMonth") String toMonth);
+}
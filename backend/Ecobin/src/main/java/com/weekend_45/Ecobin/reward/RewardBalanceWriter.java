@@ -0,0 +1,236 @@
+package com.weekend_45.Ecobin.reward;
+
+import com.weekend_45.Ecobin.entity.RewardBalance;
+import com.weekend_45.Ecobin.repository.RewardBalanceRepo;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Applies ledger amounts to reward_balance, in one of two modes.
+//
+// Immediate (default): one atomic upsert per customer inside the report's transaction, so a balance
+// always matches the committed ledger. The row stays locked until the report commits, so reports for
+// one customer are written one after another.
+//
+// Write-behind (ecobin.rewards.write-behind=true): amounts are added to a LongAdder per customer once
+// the report has committed, and a background flush applies the sums every few seconds, one batch per
+// transaction. A busy customer then costs one row update per flush instead of one lock per report.
+// The flush reads and writes the rows through JPA and relies on the version column to notice other
+// writers (an upsert, an admin rebuild), retrying the batch with fresh rows when it loses. Balances
+// lag the ledger by up to one flush interval. Amounts not yet flushed when the process dies are
+// recovered at the next start by summing the ledger, which reward_flush_state records the need for.
+// That recovery cannot see amounts pending in another process, so write-behind is for a single
+// instance only; run several instances in immediate mode.
+@Component
+public class RewardBalanceWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardBalanceWriter.class);
+
+    // Single statement upsert, so concurrent writers for the same customer cannot lose updates
+    private static final String UPSERT_FLUSH_STATE =
+            "insert into reward_flush_state (name, clean, updated_at) values ('reward_balance', ?, ?) as new " +
+            "on duplicate key update clean = new.clean, updated_at = new.updated_at";
+
+    private static final String UPSERT_BALANCE =
+            "insert into reward_balance (customer_name, balance, updated_at, version) values (?, ?, ?, 0) as new " +
+            "on duplicate key update balance = balance + new.balance, updated_at = new.updated_at, version = version + 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RewardBalanceRepo rewardBalanceRepo;
+    private final RewardLeaderboard rewardLeaderboard;
+    private final TransactionTemplate transaction;
+    private final boolean writeBehind;
+    private final int maxAttempts;
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public RewardBalanceWriter(JdbcTemplate jdbcTemplate,
+                               RewardBalanceRepo rewardBalanceRepo,
+                               RewardLeaderboard rewardLeaderboard,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${ecobin.rewards.write-behind:false}") boolean writeBehind,
+                               @Value("${ecobin.rewards.flush-interval-ms:2000}") long flushIntervalMs,
+                               @Value("${ecobin.rewards.flush-attempts:5}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rewardBalanceRepo = rewardBalanceRepo;
+        this.rewardLeaderboard = rewardLeaderboard;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.writeBehind = writeBehind;
+        this.maxAttempts = maxAttempts;
+
+        if (writeBehind){
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reward-balance-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    // True when a write-behind run ended without flushing everything, so reward_balance is behind the
+    // ledger. A write-behind run without any recorded state (the first one) counts as unclean too.
+    public boolean needsRebuild() {
+        List<Boolean> clean = jdbcTemplate.queryForList(
+                "select clean from reward_flush_state where name = 'reward_balance'", Boolean.class);
+        return clean.isEmpty() ? writeBehind : !clean.get(0);
+    }
+
+    // Called once balances match the ledger at startup. From here on a crash in write-behind mode
+    // leaves the state unclean until the final flush in stop() succeeds.
+    public void started() {
+        if (writeBehind || !jdbcTemplate.queryForList("select 1 from reward_flush_state", Integer.class).isEmpty()){
+            markClean(!writeBehind);
+        }
+    }
+
+    private void markClean(boolean clean) {
+        jdbcTemplate.update(UPSERT_FLUSH_STATE, clean, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // Called inside the transaction that appended the ledger entries for these amounts
+    public void apply(Map<String, Long> amounts, LocalDateTime at) {
+        if (writeBehind){
+            afterCommit(() -> amounts.forEach((customer, amount) ->
+                    pending.computeIfAbsent(customer, key -> new LongAdder()).add(amount)));
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(at);
+        amounts.forEach((customer, amount) -> jdbcTemplate.update(UPSERT_BALANCE, customer, amount, timestamp));
+        afterCommit(() -> rewardLeaderboard.refresh(amounts.keySet()));
+    }
+
+    // The stored balance plus whatever this instance has not flushed yet
+    public RewardBalance balance(String customer) {
+        RewardBalance balance = rewardBalanceRepo.findById(customer).orElseGet(() -> new RewardBalance(customer, 0, null));
+        LongAdder unflushed = pending.get(customer);
+        if (unflushed != null){
+            balance.setBalance(balance.getBalance() + unflushed.sum());
+        }
+        return balance;
+    }
+
+    // Applies everything accumulated so far; returns the number of customers updated
+    public int flush() {
+        Map<String, Long> batch = new HashMap<>();
+        // sumThenReset takes each cell with getAndSet, so an add racing with it lands in this batch or the next
+        pending.forEach((customer, adder) -> {
+            long amount = adder.sumThenReset();
+            if (amount != 0){
+                batch.put(customer, amount);
+            }
+        });
+        if (batch.isEmpty()){
+            return 0;
+        }
+
+        for (int attempt = 1; ; attempt++){
+            try {
+                transaction.executeWithoutResult(status -> write(batch));
+                break;
+            }catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e){
+                if (attempt >= maxAttempts){
+                    restore(batch);
+                    throw e;
+                }
+                log.debug("Reward balance flush lost a race, retrying ({} of {})", attempt, maxAttempts);
+            }catch (RuntimeException e){
+                // e.g. the database is unreachable or the query timed out; the transaction rolled back
+                restore(batch);
+                throw e;
+            }
+        }
+        rewardLeaderboard.refresh(batch.keySet());
+        return batch.size();
+    }
+
+    // Puts the amounts of a batch that was not written back for the next flush
+    private void restore(Map<String, Long> batch) {
+        batch.forEach((customer, amount) -> pending.computeIfAbsent(customer, key -> new LongAdder()).add(amount));
+    }
+
+    private void write(Map<String, Long> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, RewardBalance> existing = new HashMap<>();
+        for (RewardBalance balance : rewardBalanceRepo.findAllById(List.copyOf(batch.keySet()))){
+            existing.put(balance.getCustomerName(), balance);
+        }
+        batch.forEach((customer, amount) -> {
+            RewardBalance balance = existing.get(customer);
+            if (balance == null){
+                entityManager.persist(new RewardBalance(customer, amount, now));
+            }else {
+                balance.setBalance(balance.getBalance() + amount);
+                balance.setUpdatedAt(now);
+            }
+        });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        }catch (RuntimeException e){
+            log.warn("Reward balance flush failed, keeping the amounts for the next one", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }else {
+            action.run();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null){
+            return;
+        }
+        flusher.shutdown();
+        // A flush still running holds a batch that is neither pending nor written yet
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        try {
+            flush();
+            markClean(true);
+        }catch (RuntimeException e){
+            log.warn("Final reward balance flush failed; balances will be rebuilt from the ledger at the next start", e);
+        }
+    }
+}
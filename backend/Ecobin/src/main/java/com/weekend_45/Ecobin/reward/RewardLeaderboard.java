@@ -0,0 +1,133 @@
+package com.weekend_45.Ecobin.reward;
+
+import com.weekend_45.Ecobin.entity.RewardBalance;
+import com.weekend_45.Ecobin.repository.RewardBalanceRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// The customers with the highest reward balances, kept in memory. Changed customers are re-read by
+// primary key after each commit and moved in or out of the set. Customers outside the set are only
+// known to rank no higher than a bound; once a requested rank is no longer certainly above that bound
+// (a member lost points, say) the set is reloaded with one indexed query for the top rows.
+@Component
+public class RewardLeaderboard {
+
+    // Highest balance first; ties by name, so every customer has exactly one rank
+    private static final Comparator<RewardBalance> RANK = Comparator
+            .comparingLong(RewardBalance::getBalance).reversed()
+            .thenComparing(RewardBalance::getCustomerName);
+
+    private final RewardBalanceRepo rewardBalanceRepo;
+    private final int capacity;
+
+    private final TreeSet<RewardBalance> ranked = new TreeSet<>(RANK);
+    private final Map<String, RewardBalance> members = new HashMap<>();
+    private boolean loaded;
+    // Every customer outside the set ranks after this entry; null when there are none
+    private RewardBalance outsideBound;
+
+    public RewardLeaderboard(RewardBalanceRepo rewardBalanceRepo,
+                             @Value("${ecobin.rewards.leaderboard-size:100}") int capacity) {
+        this.rewardBalanceRepo = rewardBalanceRepo;
+        this.capacity = capacity;
+    }
+
+    public synchronized List<RewardBalance> top(int limit) {
+        int wanted = Math.min(limit, capacity);
+        if (!loaded || !certain(wanted)){
+            reload();
+        }
+        List<RewardBalance> top = new ArrayList<>(wanted);
+        for (RewardBalance balance : ranked){
+            if (top.size() == wanted){
+                break;
+            }
+            top.add(copy(balance));
+        }
+        return top;
+    }
+
+    public synchronized void refresh(Collection<String> customers) {
+        if (!loaded){
+            return;
+        }
+        for (String customer : customers){
+            rewardBalanceRepo.findById(customer).ifPresent(this::place);
+        }
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    private void place(RewardBalance balance) {
+        RewardBalance member = members.remove(balance.getCustomerName());
+        if (member != null){
+            ranked.remove(member);
+            add(balance);
+            return;
+        }
+
+        if (ranked.size() < capacity && outsideBound == null || !ranked.isEmpty() && RANK.compare(balance, ranked.last()) < 0){
+            add(balance);
+            if (ranked.size() > capacity){
+                RewardBalance evicted = ranked.pollLast();
+                members.remove(evicted.getCustomerName());
+                raiseBound(evicted);
+            }
+        }else {
+            raiseBound(balance);
+        }
+    }
+
+    private void add(RewardBalance balance) {
+        ranked.add(balance);
+        members.put(balance.getCustomerName(), balance);
+    }
+
+    private void raiseBound(RewardBalance outsider) {
+        if (outsideBound == null || RANK.compare(outsider, outsideBound) < 0){
+            outsideBound = outsider;
+        }
+    }
+
+    // True when the first wanted members are known to rank above every customer outside the set
+    private boolean certain(int wanted) {
+        if (ranked.size() < wanted){
+            return outsideBound == null;
+        }
+        if (outsideBound == null){
+            return true;
+        }
+        int rank = 0;
+        for (RewardBalance balance : ranked){
+            if (++rank == wanted){
+                // Equal only when the bound is this same customer, whom every outsider ranks after
+                return RANK.compare(balance, outsideBound) <= 0;
+            }
+        }
+        return wanted == 0;
+    }
+
+    private void reload() {
+        List<RewardBalance> rows = rewardBalanceRepo.findAllByOrderByBalanceDescCustomerNameAsc(Limit.of(capacity));
+        ranked.clear();
+        members.clear();
+        rows.forEach(this::add);
+        outsideBound = rows.size() == capacity ? rows.get(rows.size() - 1) : null;
+        loaded = true;
+    }
+
+    private static RewardBalance copy(RewardBalance balance) {
+        return new RewardBalance(balance.getCustomerName(), balance.getBalance(), balance.getUpdatedAt());
+    }
+}
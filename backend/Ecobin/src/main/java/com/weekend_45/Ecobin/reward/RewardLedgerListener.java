@@ -0,0 +1,43 @@
+package com.weekend_45.Ecobin.reward;
+
+import com.weekend_45.Ecobin.entity.RewardSnapshot;
+import com.weekend_45.Ecobin.entity.WasteReporting;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Records reward changes of report writes in the ledger, inside the transaction that writes the report
+@Component
+public class RewardLedgerListener {
+
+    @Autowired
+    private RewardLedgerService rewardLedgerService;
+
+    @PostLoad
+    public void loaded(WasteReporting report) {
+        report.setRewardSnapshot(RewardSnapshot.of(report));
+    }
+
+    @PostPersist
+    public void created(WasteReporting report) {
+        RewardSnapshot current = RewardSnapshot.of(report);
+        rewardLedgerService.record(report.getId(), null, current);
+        report.setRewardSnapshot(current);
+    }
+
+    @PostUpdate
+    public void updated(WasteReporting report) {
+        RewardSnapshot current = RewardSnapshot.of(report);
+        rewardLedgerService.record(report.getId(), report.getRewardSnapshot(), current);
+        report.setRewardSnapshot(current);
+    }
+
+    @PostRemove
+    public void removed(WasteReporting report) {
+        RewardSnapshot previous = report.getRewardSnapshot();
+        rewardLedgerService.record(report.getId(), previous != null ? previous : RewardSnapshot.of(report), null);
+    }
+}
@@ -0,0 +1,152 @@
+package com.weekend_45.Ecobin.reward;
+
+import com.weekend_45.Ecobin.entity.RewardLedgerEntry;
+import com.weekend_45.Ecobin.entity.RewardSnapshot;
+import com.weekend_45.Ecobin.entity.WasteReporting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Append-only reward ledger with a running balance per customer. Each report write adds ledger entries
+// on the report's own connection, so the ledger and the report commit or roll back together, and hands
+// the net amount per customer to RewardBalanceWriter, which updates reward_balance and the leaderboard.
+@Service
+public class RewardLedgerService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RewardLedgerService.class);
+
+    private static final String INSERT_ENTRY =
+            "insert into reward_ledger_entry (customer_name, report_id, points, reason, created_at) values (?, ?, ?, ?, ?)";
+
+    private static final String OPENING_ENTRIES =
+            "insert into reward_ledger_entry (customer_name, report_id, points, reason, created_at) " +
+            "select left(trim(customer_name), " + RewardSnapshot.MAX_NAME + "), id, reword, '" + RewardLedgerEntry.OPENING + "', ? " +
+            "from waste_reporting where trim(customer_name) <> '' and coalesce(reword, 0) <> 0";
+
+    private static final String REBUILD_BALANCES =
+            "insert into reward_balance (customer_name, balance, updated_at, version) " +
+            "select customer_name, sum(points), max(created_at), 0 from reward_ledger_entry group by customer_name";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Lazy: the transaction manager, the writer and the leaderboard use JPA, and this service is needed
+    // while JPA is being set up
+    @Autowired
+    @Lazy
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Lazy
+    private RewardBalanceWriter rewardBalanceWriter;
+
+    @Autowired
+    @Lazy
+    private RewardLeaderboard rewardLeaderboard;
+
+    // previous is what the ledger credits for the report so far, current what it should credit now;
+    // either is null when the report is new or removed
+    public void record(Long reportId, RewardSnapshot previous, RewardSnapshot current) {
+        if (Objects.equals(previous, current)){
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> changed = new LinkedHashMap<>();
+
+        boolean sameCustomer = previous != null && current != null && previous.customerName().equals(current.customerName());
+        if (sameCustomer){
+            if (current.customerName().isEmpty()){
+                return;
+            }
+            append(changed, current.customerName(), reportId, current.points() - previous.points(), RewardLedgerEntry.ADJUSTED, now);
+        }else {
+            if (previous != null && previous.counts()){
+                append(changed, previous.customerName(), reportId, -previous.points(), RewardLedgerEntry.REVERSED, now);
+            }
+            if (current != null && current.counts()){
+                append(changed, current.customerName(), reportId, current.points(),
+                        previous == null ? RewardLedgerEntry.REPORTED : RewardLedgerEntry.ADJUSTED, now);
+            }
+        }
+
+        if (!changed.isEmpty()){
+            rewardBalanceWriter.apply(changed, now);
+        }
+    }
+
+    // Credits many new reports at once: one JDBC batch of ledger entries, one balance change per customer
+    public void recordCreated(List<WasteReporting> reports) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp at = Timestamp.valueOf(now);
+        List<Object[]> entries = new ArrayList<>();
+        Map<String, Long> changed = new LinkedHashMap<>();
+        for (WasteReporting report : reports){
+            RewardSnapshot current = RewardSnapshot.of(report);
+            report.setRewardSnapshot(current);
+            if (current.counts()){
+                entries.add(new Object[]{current.customerName(), report.getId(), current.points(), RewardLedgerEntry.REPORTED, at});
+                changed.merge(current.customerName(), (long) current.points(), Long::sum);
+            }
+        }
+        if (!entries.isEmpty()){
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+            rewardBalanceWriter.apply(changed, now);
+        }
+    }
+
+    private void append(Map<String, Long> changed, String customerName, Long reportId, long points, String reason, LocalDateTime now) {
+        jdbcTemplate.update(INSERT_ENTRY, customerName, reportId, points, reason, Timestamp.valueOf(now));
+        changed.merge(customerName, points, Long::sum);
+    }
+
+    // Opens the ledger with one entry per existing report the first time it is deployed
+    @Transactional
+    public void open() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int entries = jdbcTemplate.update(OPENING_ENTRIES, now);
+        jdbcTemplate.update("delete from reward_balance");
+        int customers = jdbcTemplate.update(REBUILD_BALANCES);
+        log.info("Opened the reward ledger with {} entries for {} customers", entries, customers);
+    }
+
+    // Balances summed again from the ledger, e.g. after write-behind amounts were lost in a crash.
+    // Ledger writes committed during the rebuild are missed, so only run it while reports are not written.
+    @Transactional
+    public void rebuildBalances() {
+        jdbcTemplate.update("delete from reward_balance");
+        int customers = jdbcTemplate.update(REBUILD_BALANCES);
+        log.info("Rebuilt reward balances for {} customers from the ledger", customers);
+    }
+
+    // Runs once every bean exists but before the web server accepts requests, so no report write can
+    // land between the opening or rebuild reading the tables and the writer taking over
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long entries = jdbcTemplate.queryForObject("select count(*) from reward_ledger_entry", Long.class);
+        Long reports = jdbcTemplate.queryForObject("select count(*) from waste_reporting", Long.class);
+        if (entries != null && entries == 0 && reports != null && reports > 0){
+            // Opening rebuilds the balances as well
+            transactionTemplate.executeWithoutResult(status -> open());
+            rewardLeaderboard.invalidate();
+        }else if (rewardBalanceWriter.needsRebuild()){
+            log.info("Reward balances were not fully flushed by the last run");
+            transactionTemplate.executeWithoutResult(status -> rebuildBalances());
+            rewardLeaderboard.invalidate();
+        }
+        rewardBalanceWriter.started();
+    }
+}
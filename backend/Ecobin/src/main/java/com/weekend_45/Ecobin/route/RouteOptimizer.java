@@ -0,0 +1,147 @@
+package com.weekend_45.Ecobin.route;
+
+// Orders the stops of one truck. Node 0 is where the truck starts and ends: the depot, or a node at
+// distance 0 from every stop when there is no depot, which turns the closed tour into an open path.
+// The tour is built nearest-neighbour first and then improved with 2-opt and Or-opt moves until no
+// move shortens it, or maxRounds is reached.
+final class RouteOptimizer {
+
+    private static final double EPSILON = 1e-9;
+
+    private final double[][] distance;
+    private final int maxRounds;
+
+    RouteOptimizer(double[][] distance, int maxRounds) {
+        this.distance = distance;
+        this.maxRounds = maxRounds;
+    }
+
+    // Visiting order as node indexes, starting with 0
+    int[] solve() {
+        int[] tour = nearestNeighbour();
+        for (int round = 0; round < maxRounds; round++){
+            boolean improved = twoOpt(tour);
+            int[] moved = orOpt(tour);
+            if (moved != null){
+                tour = moved;
+                improved = true;
+            }
+            if (!improved){
+                break;
+            }
+        }
+        return tour;
+    }
+
+    double length(int[] tour) {
+        double total = 0;
+        for (int i = 0; i < tour.length; i++){
+            total += distance[tour[i]][tour[(i + 1) % tour.length]];
+        }
+        return total;
+    }
+
+    private int[] nearestNeighbour() {
+        int n = distance.length;
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int i = 1; i < n; i++){
+            int from = tour[i - 1];
+            int next = -1;
+            for (int candidate = 1; candidate < n; candidate++){
+                if (!visited[candidate] && (next < 0 || distance[from][candidate] < distance[from][next])){
+                    next = candidate;
+                }
+            }
+            tour[i] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    // Reverses tour[i..j] whenever that swaps two edges for two shorter ones
+    private boolean twoOpt(int[] tour) {
+        int n = tour.length;
+        boolean improved = false;
+        boolean again = true;
+        while (again){
+            again = false;
+            for (int i = 1; i < n - 1; i++){
+                for (int j = i + 1; j < n; j++){
+                    int a = tour[i - 1], b = tour[i], c = tour[j], d = tour[(j + 1) % n];
+                    double delta = distance[a][c] + distance[b][d] - distance[a][b] - distance[c][d];
+                    if (delta < -EPSILON){
+                        reverse(tour, i, j);
+                        improved = true;
+                        again = true;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Moves a run of one to three stops, possibly reversed, to a cheaper place in the tour. Returns the
+    // improved tour, or null when no move helps.
+    private int[] orOpt(int[] tour) {
+        int n = tour.length;
+        int[] current = tour;
+        boolean improved = false;
+        boolean again = true;
+        while (again){
+            again = false;
+            search:
+            for (int length = 1; length <= 3 && length < n - 1; length++){
+                for (int start = 1; start + length <= n; start++){
+                    int end = start + length - 1;
+                    int prev = current[start - 1], first = current[start], last = current[end], next = current[(end + 1) % n];
+                    double removed = distance[prev][first] + distance[last][next] - distance[prev][next];
+
+                    for (int k = 0; k < n; k++){
+                        if (k >= start - 1 && k <= end){
+                            continue;
+                        }
+                        int p = current[k], q = current[(k + 1) % n];
+                        double forward = distance[p][first] + distance[last][q] - distance[p][q];
+                        double backward = distance[p][last] + distance[first][q] - distance[p][q];
+                        if (Math.min(forward, backward) - removed < -EPSILON){
+                            current = move(current, start, end, k, backward < forward);
+                            improved = true;
+                            again = true;
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+        return improved ? current : null;
+    }
+
+    // Takes tour[start..end] out and puts it back after the node at position k
+    private static int[] move(int[] tour, int start, int end, int k, boolean reversed) {
+        int n = tour.length;
+        int[] result = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++){
+            if (i >= start && i <= end){
+                continue;
+            }
+            result[size++] = tour[i];
+            if (i == k){
+                for (int s = 0; s <= end - start; s++){
+                    result[size++] = reversed ? tour[end - s] : tour[start + s];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to){
+            int swap = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = swap;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.weekend_45.Ecobin.route;
+
+import com.weekend_45.Ecobin.dto.DriverRoute;
+import com.weekend_45.Ecobin.dto.RoutePlan;
+import com.weekend_45.Ecobin.dto.RouteStop;
+import com.weekend_45.Ecobin.entity.CollectionSchedule;
+import com.weekend_45.Ecobin.entity.WastePickupRequest;
+import com.weekend_45.Ecobin.repository.CollectionScheduleRepo;
+import com.weekend_45.Ecobin.repository.WastePickupRequestRepository;
+import com.weekend_45.Ecobin.service.Geo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Plans the order of the day's pending collection stops for every driver. Each pending pickup request
+// and each schedule without a driver (such as a recurring occurrence) is given to the driver with a
+// stop closest to it; then every driver's stops are ordered on the fork/join pool, one task per
+// driver, over a haversine distance matrix. Applying the plan stores the driver and route position on
+// the schedules and adds a schedule for every pickup request taken.
+@Service
+public class RoutePlanner {
+
+    public static final String PENDING = "Pending";
+
+    private final CollectionScheduleRepo collectionScheduleRepo;
+    private final WastePickupRequestRepository wastePickupRequestRepository;
+    private final TransactionTemplate transaction;
+    private final ForkJoinPool pool;
+    private final int maxRounds;
+    private final LocalTime pickupTime;
+
+    // Where a truck starts and ends; null means the route may start and end at any stop
+    public record Depot(double latitude, double longitude) {
+    }
+
+    // One stop being planned: an existing schedule, or a pickup request that has no schedule yet
+    private record Stop(CollectionSchedule schedule, WastePickupRequest pickup) {
+
+        double latitude() {
+            return schedule != null ? schedule.getLatitude() : pickup.getLatitude();
+        }
+
+        double longitude() {
+            return schedule != null ? schedule.getLongitude() : pickup.getLongitude();
+        }
+    }
+
+    public RoutePlanner(CollectionScheduleRepo collectionScheduleRepo,
+                        WastePickupRequestRepository wastePickupRequestRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${ecobin.routes.parallelism:0}") int parallelism,
+                        @Value("${ecobin.routes.max-rounds:50}") int maxRounds,
+                        @Value("${ecobin.routes.pickup-time:08:00}") LocalTime pickupTime) {
+        this.collectionScheduleRepo = collectionScheduleRepo;
+        this.wastePickupRequestRepository = wastePickupRequestRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxRounds = maxRounds;
+        this.pickupTime = pickupTime;
+    }
+
+    // Throws DataIntegrityViolationException when another plan took one of the pickup requests first
+    public RoutePlan plan(LocalDate date, Depot depot, boolean apply) {
+        List<CollectionSchedule> schedules = collectionScheduleRepo.findByStatusAndCollectionDateBetweenOrderByCollectionDate(
+                PENDING, date.atStartOfDay(), date.plusDays(1).atStartOfDay().minusNanos(1));
+
+        Map<String, List<Stop>> stopsByDriver = new LinkedHashMap<>();
+        List<Stop> driverless = new ArrayList<>();
+        List<Long> unrouted = new ArrayList<>();
+        for (CollectionSchedule schedule : schedules){
+            if (schedule.getLatitude() == null || schedule.getLongitude() == null){
+                unrouted.add(schedule.getId());
+            }else if (schedule.getDriverName() == null || schedule.getDriverName().isBlank()){
+                driverless.add(new Stop(schedule, null));
+            }else {
+                stopsByDriver.computeIfAbsent(schedule.getDriverName(), driver -> new ArrayList<>()).add(new Stop(schedule, null));
+            }
+        }
+        for (WastePickupRequest pickup : wastePickupRequestRepository.findUnscheduledWithCoordinates()){
+            driverless.add(new Stop(null, pickup));
+        }
+
+        List<Long> unassigned = new ArrayList<>();
+        for (Stop stop : assignDrivers(driverless, stopsByDriver)){
+            if (stop.schedule() != null){
+                unrouted.add(stop.schedule().getId());
+            }else {
+                unassigned.add(stop.pickup().getId());
+            }
+        }
+
+        List<ForkJoinTask<DriverRoute>> tasks = new ArrayList<>();
+        stopsByDriver.forEach((driver, stops) -> tasks.add(pool.submit(() -> route(driver, stops, depot))));
+        List<DriverRoute> routes = tasks.stream().map(ForkJoinTask::join).toList();
+
+        if (apply){
+            transaction.executeWithoutResult(status -> save(routes, stopsByDriver, date));
+        }
+
+        double distanceKm = routes.stream().mapToDouble(DriverRoute::getDistanceKm).sum();
+        double baselineKm = routes.stream().mapToDouble(DriverRoute::getBaselineKm).sum();
+        return new RoutePlan(date, apply, routes, distanceKm, baselineKm, unrouted, unassigned);
+    }
+
+    // Gives each stop without a driver (pickup requests, recurring occurrences) to the driver with the
+    // closest stop of their own; returns the stops nobody could take
+    private List<Stop> assignDrivers(List<Stop> driverless, Map<String, List<Stop>> stopsByDriver) {
+        List<Stop> unassigned = new ArrayList<>();
+        Map<String, List<Stop>> assigned = new LinkedHashMap<>();
+        for (Stop candidate : driverless){
+            String closestDriver = null;
+            double closest = Double.MAX_VALUE;
+            for (Map.Entry<String, List<Stop>> entry : stopsByDriver.entrySet()){
+                for (Stop stop : entry.getValue()){
+                    double distance = Geo.distanceMeters(candidate.latitude(), candidate.longitude(), stop.latitude(), stop.longitude());
+                    if (distance < closest){
+                        closest = distance;
+                        closestDriver = entry.getKey();
+                    }
+                }
+            }
+            if (closestDriver == null){
+                unassigned.add(candidate);
+            }else {
+                assigned.computeIfAbsent(closestDriver, driver -> new ArrayList<>()).add(candidate);
+            }
+        }
+        assigned.forEach((driver, stops) -> stopsByDriver.get(driver).addAll(stops));
+        return unassigned;
+    }
+
+    // Runs on the fork/join pool
+    private DriverRoute route(String driver, List<Stop> stops, Depot depot) {
+        int n = stops.size() + 1;
+        double[][] distance = new double[n][n];
+        for (int i = 1; i < n; i++){
+            Stop from = stops.get(i - 1);
+            if (depot != null){
+                distance[0][i] = distance[i][0] = km(depot.latitude(), depot.longitude(), from.latitude(), from.longitude());
+            }
+            for (int j = i + 1; j < n; j++){
+                Stop to = stops.get(j - 1);
+                distance[i][j] = distance[j][i] = km(from.latitude(), from.longitude(), to.latitude(), to.longitude());
+            }
+        }
+
+        RouteOptimizer optimizer = new RouteOptimizer(distance, maxRounds);
+        int[] baseline = new int[n];
+        for (int i = 0; i < n; i++){
+            baseline[i] = i;
+        }
+        int[] tour = optimizer.solve();
+
+        List<RouteStop> ordered = new ArrayList<>(stops.size());
+        for (int i = 1; i < n; i++){
+            Stop stop = stops.get(tour[i] - 1);
+            ordered.add(stop.schedule() != null
+                    ? new RouteStop(stop.schedule().getId(), stop.schedule().getPickupRequestId(), stop.schedule().getLocation(), stop.latitude(), stop.longitude())
+                    : new RouteStop(null, stop.pickup().getId(), stop.pickup().getAddress(), stop.latitude(), stop.longitude()));
+        }
+        return new DriverRoute(driver, ordered, optimizer.length(tour), optimizer.length(baseline));
+    }
+
+    private void save(List<DriverRoute> routes, Map<String, List<Stop>> stopsByDriver, LocalDate date) {
+        for (DriverRoute route : routes){
+            Map<Long, WastePickupRequest> pickups = new LinkedHashMap<>();
+            for (Stop stop : stopsByDriver.get(route.getDriverName())){
+                if (stop.pickup() != null){
+                    pickups.put(stop.pickup().getId(), stop.pickup());
+                }
+            }
+
+            int order = 1;
+            for (RouteStop stop : route.getStops()){
+                if (stop.getScheduleId() != null){
+                    collectionScheduleRepo.updateRoute(stop.getScheduleId(), route.getDriverName(), order);
+                }else {
+                    WastePickupRequest pickup = pickups.get(stop.getPickupRequestId());
+                    CollectionSchedule schedule = new CollectionSchedule();
+                    schedule.setDriverName(route.getDriverName());
+                    schedule.setWasteType(pickup.getWasteType());
+                    schedule.setCollectionDate(LocalDateTime.of(date, pickupTime));
+                    schedule.setLocation(pickup.getAddress());
+                    schedule.setLatitude(pickup.getLatitude());
+                    schedule.setLongitude(pickup.getLongitude());
+                    schedule.setStatus(PENDING);
+                    schedule.setRemark("Pickup request #" + pickup.getId());
+                    schedule.setPickupRequestId(pickup.getId());
+                    schedule.setRouteOrder(order);
+                    stop.setScheduleId(collectionScheduleRepo.save(schedule).getId());
+                }
+                order++;
+            }
+        }
+    }
+
+    private static double km(double lat1, double lon1, double lat2, double lon2) {
+        return Geo.distanceMeters(lat1, lon1, lat2, lon2) / 1000;
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.weekend_45.Ecobin.search;
+
+import com.weekend_45.Ecobin.entity.ContactUs;
+import com.weekend_45.Ecobin.entity.WastePickupRequest;
+import com.weekend_45.Ecobin.entity.WasteReporting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// What the search index keeps for one row: display fields, the free text to match and its facet values
+public record SearchDocument(String type, long id, String title, String subtitle, String text, Map<String, String> facets) {
+
+    public static final String REPORT = "report";
+    public static final String PICKUP = "pickup";
+    public static final String CONTACT = "contact";
+
+    public String uid() {
+        return type + ":" + id;
+    }
+
+    public static SearchDocument of(Object entity) {
+        if (entity instanceof WasteReporting report){
+            return of(report);
+        }
+        if (entity instanceof WastePickupRequest pickup){
+            return of(pickup);
+        }
+        if (entity instanceof ContactUs contact){
+            return of(contact);
+        }
+        throw new IllegalArgumentException("Not searchable: " + entity.getClass().getName());
+    }
+
+    public static SearchDocument of(WasteReporting report) {
+        Map<String, String> facets = new LinkedHashMap<>();
+        facets.put("wasteType", report.getWasteType());
+        return new SearchDocument(REPORT, report.getId(), report.getWasteTitle(), report.getWasteLocation(),
+                join(report.getWasteTitle(), report.getDescription(), report.getWasteLocation(),
+                        report.getWasteType(), report.getCustomerName()),
+                facets);
+    }
+
+    public static SearchDocument of(WastePickupRequest pickup) {
+        Map<String, String> facets = new LinkedHashMap<>();
+        facets.put("wasteType", pickup.getWasteType());
+        facets.put("frequency", pickup.getFrequencyPickup());
+        return new SearchDocument(PICKUP, pickup.getId(), pickup.getName(), pickup.getAddress(),
+                join(pickup.getName(), pickup.getAddress(), pickup.getWasteType(), pickup.getFrequencyPickup()),
+                facets);
+    }
+
+    public static SearchDocument of(ContactUs contact) {
+        return new SearchDocument(CONTACT, contact.getId(), contact.getName(), contact.getEmail(),
+                join(contact.getName(), contact.getEmail(), contact.getMessage()),
+                Map.of());
+    }
+
+    private static String join(String... values) {
+        return Stream.of(values).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
+}
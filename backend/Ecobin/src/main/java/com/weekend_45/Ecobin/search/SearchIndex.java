@@ -0,0 +1,258 @@
+package com.weekend_45.Ecobin.search;
+
+import com.weekend_45.Ecobin.dto.FacetCount;
+import com.weekend_45.Ecobin.dto.SearchHit;
+import com.weekend_45.Ecobin.dto.SearchResult;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.DrillDownQuery;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MultiCollectorManager;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lucene index on local disk over reports, pickup requests and contacts. Writes become searchable
+// right away through a near-real-time reader and are committed to disk every few seconds; anything
+// lost in a crash is put back by SearchIndexer at the next start. Facet counts come from sorted-set
+// doc values, so no taxonomy index is needed.
+@Component
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    public static final List<String> FACET_DIMENSIONS = List.of("type", "wasteType", "frequency");
+
+    private static final String UID = "uid";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String SUBTITLE = "subtitle";
+    private static final String TEXT = "text";
+    private static final int FACET_VALUES = 20;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicBoolean uncommitted = new AtomicBoolean();
+    private final ScheduledExecutorService committer;
+
+    // Facet ordinals for the current reader; rebuilt only when the reader changes
+    private volatile FacetState facetState;
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+
+    public SearchIndex(@Value("${ecobin.search.dir:search-index}") String dir,
+                       @Value("${ecobin.search.commit-interval-seconds:5}") long commitIntervalSeconds) throws IOException {
+        this.directory = FSDirectory.open(Path.of(dir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitIfChanged, commitIntervalSeconds, commitIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void upsert(SearchDocument document) throws IOException {
+        writer.updateDocument(new Term(UID, document.uid()), facetsConfig.build(toLucene(document)));
+        changed();
+    }
+
+    // Many documents with a single reader refresh, for bulk imports
+    public void upsertAll(List<SearchDocument> documents) throws IOException {
+        for (SearchDocument document : documents){
+            writer.updateDocument(new Term(UID, document.uid()), facetsConfig.build(toLucene(document)));
+        }
+        changed();
+    }
+
+    public void delete(SearchDocument document) throws IOException {
+        writer.deleteDocuments(new Term(UID, document.uid()));
+        changed();
+    }
+
+    public void deleteType(String type) throws IOException {
+        writer.deleteDocuments(new Term(TYPE, type));
+        changed();
+    }
+
+    public long count(String type) throws IOException {
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(new Term(TYPE, type)));
+        }finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // q uses the simple syntax (quotes, +, -, | and trailing * for prefixes); all words must match
+    // by default. filters narrow the results to the given facet values.
+    public SearchResult search(String q, Map<String, String> filters, int limit) throws IOException {
+        Query base = q == null || q.isBlank() ? new MatchAllDocsQuery() : parse(q);
+        DrillDownQuery query = new DrillDownQuery(facetsConfig, base);
+        filters.forEach(query::add);
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            if (searcher.getIndexReader().numDocs() == 0){
+                return new SearchResult(0, List.of(), Map.of());
+            }
+
+            // Top hits and facet matches in one pass; the threshold keeps the total hit count exact
+            Object[] results = searcher.search(query, new MultiCollectorManager(
+                    new TopScoreDocCollectorManager(limit, Integer.MAX_VALUE), new FacetsCollectorManager()));
+            TopDocs topDocs = (TopDocs) results[0];
+            FacetsCollector facetsCollector = (FacetsCollector) results[1];
+
+            List<SearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs){
+                Document stored = searcher.storedFields().document(scoreDoc.doc);
+                hits.add(new SearchHit(stored.get(TYPE), stored.getField(ID).numericValue().longValue(),
+                        stored.get(TITLE), stored.get(SUBTITLE), scoreDoc.score));
+            }
+
+            Facets facets = new SortedSetDocValuesFacetCounts(facetState(searcher.getIndexReader()), facetsCollector);
+            Map<String, List<FacetCount>> facetCounts = new LinkedHashMap<>();
+            for (String dimension : FACET_DIMENSIONS){
+                facetCounts.put(dimension, facetCounts(facets, dimension));
+            }
+
+            return new SearchResult(topDocs.totalHits.value, hits, facetCounts);
+        }finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private Query parse(String q) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(TITLE, 2f, TEXT, 1f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query parsed = parser.parse(q);
+        // A query made only of stop words parses to nothing
+        return parsed != null ? parsed : new MatchAllDocsQuery();
+    }
+
+    private List<FacetCount> facetCounts(Facets facets, String dimension) throws IOException {
+        FacetResult result;
+        try {
+            result = facets.getTopChildren(FACET_VALUES, dimension);
+        }catch (IllegalArgumentException e){
+            // no document has a value for this dimension yet
+            return List.of();
+        }
+        List<FacetCount> counts = new ArrayList<>();
+        if (result != null){
+            for (LabelAndValue labelAndValue : result.labelValues){
+                counts.add(new FacetCount(labelAndValue.label, labelAndValue.value.longValue()));
+            }
+        }
+        return counts;
+    }
+
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current == null || current.reader() != reader){
+            current = new FacetState(reader, new DefaultSortedSetDocValuesReaderState(reader, facetsConfig));
+            facetState = current;
+        }
+        return current.state();
+    }
+
+    private Document toLucene(SearchDocument source) {
+        Document document = new Document();
+        document.add(new StringField(UID, source.uid(), Field.Store.NO));
+        document.add(new StringField(TYPE, source.type(), Field.Store.YES));
+        document.add(new StoredField(ID, source.id()));
+        if (source.title() != null){
+            document.add(new TextField(TITLE, source.title(), Field.Store.YES));
+        }
+        if (source.subtitle() != null){
+            document.add(new StoredField(SUBTITLE, source.subtitle()));
+        }
+        document.add(new TextField(TEXT, source.text(), Field.Store.NO));
+
+        document.add(new SortedSetDocValuesFacetField("type", source.type()));
+        source.facets().forEach((dimension, value) -> {
+            if (value != null && !value.isBlank()){
+                document.add(new SortedSetDocValuesFacetField(dimension, value));
+            }
+        });
+        return document;
+    }
+
+    private void changed() throws IOException {
+        uncommitted.set(true);
+        searcherManager.maybeRefresh();
+    }
+
+    private void commitIfChanged() {
+        if (!uncommitted.getAndSet(false)){
+            return;
+        }
+        try {
+            writer.commit();
+        }catch (IOException e){
+            uncommitted.set(true);
+            log.warn("Search index commit failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        committer.shutdown();
+        commitIfChanged();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
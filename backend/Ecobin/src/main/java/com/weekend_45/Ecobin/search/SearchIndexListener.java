@@ -0,0 +1,62 @@
+package com.weekend_45.Ecobin.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Mirrors report, pickup request and contact writes into the search index. The document is built
+// from the entity right away but only applied once the transaction commits, so rolled back writes
+// never show up in search results.
+@Component
+public class SearchIndexListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexListener.class);
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        SearchDocument document = SearchDocument.of(entity);
+        afterCommit(() -> searchIndex.upsert(document));
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        SearchDocument document = SearchDocument.of(entity);
+        afterCommit(() -> searchIndex.delete(document));
+    }
+
+    private interface IndexUpdate {
+        void apply() throws Exception;
+    }
+
+    private void afterCommit(IndexUpdate update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        }else {
+            apply(update);
+        }
+    }
+
+    // The database write already succeeded; a failed index update is repaired by a rebuild
+    private void apply(IndexUpdate update) {
+        try {
+            update.apply();
+        }catch (Exception e){
+            log.warn("Search index update failed", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.weekend_45.Ecobin.search;
+
+import com.weekend_45.Ecobin.repository.ContactRepo;
+import com.weekend_45.Ecobin.repository.WastePickupRequestRepository;
+import com.weekend_45.Ecobin.repository.WasteReportingRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fills the search index from the database. At startup a type is re-indexed when its document count
+// differs from its row count, which covers a fresh install and writes lost in a crash.
+@Service
+@Order(3)
+public class SearchIndexer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private WasteReportingRepo wasteReportingRepo;
+
+    @Autowired
+    private WastePickupRequestRepository wastePickupRequestRepository;
+
+    @Autowired
+    private ContactRepo contactRepo;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (Map.Entry<String, JpaRepository<?, Long>> source : sources().entrySet()){
+            long rows = source.getValue().count();
+            long documents = searchIndex.count(source.getKey());
+            if (rows != documents){
+                log.info("Search index has {} {} documents for {} rows, re-indexing", documents, source.getKey(), rows);
+                reindex(source.getKey(), source.getValue());
+            }
+        }
+    }
+
+    public Map<String, Long> rebuild() throws IOException {
+        Map<String, Long> indexed = new LinkedHashMap<>();
+        for (Map.Entry<String, JpaRepository<?, Long>> source : sources().entrySet()){
+            indexed.put(source.getKey(), reindex(source.getKey(), source.getValue()));
+        }
+        return indexed;
+    }
+
+    private long reindex(String type, JpaRepository<?, Long> repository) throws IOException {
+        searchIndex.deleteType(type);
+        long indexed = 0;
+        Page<?> page = repository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+        while (true){
+            // One upsertAll per page, so the reader is reopened once per page rather than per row
+            List<SearchDocument> documents = new ArrayList<>(page.getNumberOfElements());
+            for (Object entity : page.getContent()){
+                documents.add(SearchDocument.of(entity));
+            }
+            searchIndex.upsertAll(documents);
+            indexed += documents.size();
+            if (!page.hasNext()){
+                break;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+        log.info("Indexed {} {} documents", indexed, type);
+        return indexed;
+    }
+
+    private Map<String, JpaRepository<?, Long>> sources() {
+        Map<String, JpaRepository<?, Long>> sources = new LinkedHashMap<>();
+        sources.put(SearchDocument.REPORT, wasteReportingRepo);
+        sources.put(SearchDocument.PICKUP, wastePickupRequestRepository);
+        sources.put(SearchDocument.CONTACT, contactRepo);
+        return sources;
+    }
+}
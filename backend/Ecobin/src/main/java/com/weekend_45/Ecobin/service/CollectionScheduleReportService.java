@@ -0,0 +1,291 @@
+package com.weekend_45.Ecobin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.weekend_45.Ecobin.dto.CollectionScheduleReportRow;
+import com.weekend_45.Ecobin.dto.ScheduleReportFilter;
+import com.weekend_45.Ecobin.dto.ScheduleReportJob;
+import com.weekend_45.Ecobin.repository.CollectionScheduleRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Builds collection schedule reports on the server. Rows are read page by page as narrow projections
+// (never the truck image) and written out as they arrive, so memory stays flat whatever the range.
+// Large ranges can be generated in the background: the report is written to a temp file, polled by
+// job id and removed again once the job expires.
+@Service
+public class CollectionScheduleReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionScheduleReportService.class);
+
+    private static final int PAGE_SIZE = 500;
+    private static final String CSV_HEADER = "id,driverName,wasteType,collectionDate,location,status\n";
+    private static final String[] PDF_HEADER = {"ID", "Driver", "Waste type", "Collection date", "Location", "Status"};
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    public enum Format {
+        PDF(MediaType.APPLICATION_PDF, "pdf"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String fileName() {
+            return "collection-schedule-report." + extension;
+        }
+    }
+
+    private final CollectionScheduleRepo collectionScheduleRepo;
+    private final Path reportDir;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ScheduleReportJob> jobs;
+
+    public CollectionScheduleReportService(CollectionScheduleRepo collectionScheduleRepo,
+                                           @Value("${ecobin.reports.dir:${java.io.tmpdir}/ecobin-reports}") String reportDir,
+                                           @Value("${ecobin.reports.threads:2}") int threads,
+                                           @Value("${ecobin.reports.queue-capacity:16}") int queueCapacity,
+                                           @Value("${ecobin.reports.job-ttl-minutes:60}") long jobTtlMinutes) throws IOException {
+        this.collectionScheduleRepo = collectionScheduleRepo;
+        this.reportDir = Files.createDirectories(Path.of(reportDir));
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-report-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Finished reports are kept for download for job-ttl-minutes after they complete, then the
+        // file is deleted
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry<String, ScheduleReportJob>(job -> job.getFinishedAt() != null,
+                        Duration.ofMinutes(jobTtlMinutes)))
+                .removalListener((String id, ScheduleReportJob job, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED){
+                        deleteFile(job);
+                    }
+                })
+                .build();
+    }
+
+    // Writes the report to out and returns the number of schedules in it
+    public long write(ScheduleReportFilter filter, Format format, OutputStream out) throws IOException {
+        return format == Format.PDF ? writePdf(filter, out) : writeCsv(filter, out);
+    }
+
+    // Queues a background run; throws RejectedExecutionException when too many reports are pending
+    public ScheduleReportJob submit(ScheduleReportFilter filter, Format format) {
+        ScheduleReportJob job = new ScheduleReportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setFormat(format.name().toLowerCase());
+        job.setStatus(ScheduleReportJob.Status.QUEUED);
+        job.setCreatedAt(Instant.now());
+        job.setFile(reportDir.resolve(job.getId() + "." + format.extension));
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, filter, format));
+        }catch (RejectedExecutionException e){
+            jobs.invalidate(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ScheduleReportJob> job(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private void run(ScheduleReportJob job, ScheduleReportFilter filter, Format format) {
+        job.setStatus(ScheduleReportJob.Status.RUNNING);
+        try (OutputStream out = Files.newOutputStream(job.getFile())) {
+            job.setRows(write(filter, format, out));
+            job.setStatus(ScheduleReportJob.Status.DONE);
+        }catch (Exception e){
+            log.warn("Schedule report {} failed", job.getId(), e);
+            job.setError(e.getMessage());
+            job.setStatus(ScheduleReportJob.Status.FAILED);
+            deleteFile(job);
+        }finally {
+            job.setFinishedAt(Instant.now());
+            // Starts the expiry clock now that the job is finished
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private long writeCsv(ScheduleReportFilter filter, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target);
+        out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+
+        long rows = 0;
+        long afterId = 0;
+        List<CollectionScheduleReportRow> page;
+        do {
+            page = nextPage(filter, afterId);
+            StringBuilder lines = new StringBuilder(page.size() * 96);
+            for (CollectionScheduleReportRow row : page){
+                lines.append(row.getId()).append(',')
+                        .append(Csv.field(row.getDriverName())).append(',')
+                        .append(Csv.field(row.getWasteType())).append(',')
+                        .append(Csv.field(row.getCollectionDate())).append(',')
+                        .append(Csv.field(row.getLocation())).append(',')
+                        .append(Csv.field(row.getStatus())).append('\n');
+                afterId = row.getId();
+            }
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            rows += page.size();
+        } while (page.size() == PAGE_SIZE);
+        return rows;
+    }
+
+    private long writePdf(ScheduleReportFilter filter, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4.rotate(), 36, 36, 36, 36);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            // The caller owns the stream (servlet response or job file)
+            writer.setCloseStream(false);
+            document.open();
+
+            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, new Color(34, 139, 34));
+            Font textFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.WHITE);
+
+            document.add(new Paragraph("Waste Collection Schedule Report", titleFont));
+            document.add(new Paragraph("Generated on: " + LocalDateTime.now().format(DATE_TIME), textFont));
+            document.add(new Paragraph(describe(filter), textFont));
+            document.add(new Paragraph(" "));
+
+            PdfPTable table = new PdfPTable(new float[]{1, 3, 2, 2.5f, 3, 1.5f});
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            // Rows already added are written out on every document.add, so a long report is never
+            // held in memory as one table
+            table.setComplete(false);
+            for (String header : PDF_HEADER){
+                PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
+                cell.setBackgroundColor(new Color(4, 120, 87));
+                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                table.addCell(cell);
+            }
+
+            long rows = 0;
+            long afterId = 0;
+            List<CollectionScheduleReportRow> page;
+            do {
+                page = nextPage(filter, afterId);
+                for (CollectionScheduleReportRow row : page){
+                    table.addCell(new Phrase(String.valueOf(row.getId()), textFont));
+                    table.addCell(new Phrase(text(row.getDriverName()), textFont));
+                    table.addCell(new Phrase(text(row.getWasteType()), textFont));
+                    table.addCell(new Phrase(row.getCollectionDate() != null ? row.getCollectionDate().format(DATE_TIME) : "", textFont));
+                    table.addCell(new Phrase(text(row.getLocation()), textFont));
+                    table.addCell(new Phrase(text(row.getStatus()), textFont));
+                    afterId = row.getId();
+                }
+                document.add(table);
+                rows += page.size();
+            } while (page.size() == PAGE_SIZE);
+
+            table.setComplete(true);
+            document.add(table);
+            document.add(new Paragraph(" "));
+            document.add(new Paragraph("Total schedules: " + rows, textFont));
+            document.add(new Paragraph("Signature: __________________", textFont));
+            return rows;
+        }catch (DocumentException e){
+            throw new IOException("Could not build the PDF report", e);
+        }finally {
+            if (document.isOpen()){
+                document.close();
+            }
+        }
+    }
+
+    private List<CollectionScheduleReportRow> nextPage(ScheduleReportFilter filter, long afterId) {
+        return collectionScheduleRepo.findReportRowsAfter(afterId, filter.from(), filter.to(), filter.status(),
+                filter.location(), filter.driver(), Limit.of(PAGE_SIZE));
+    }
+
+    private static String describe(ScheduleReportFilter filter) {
+        StringBuilder text = new StringBuilder("Filters: ");
+        int length = text.length();
+        if (filter.from() != null) text.append("from ").append(filter.from().toLocalDate()).append("  ");
+        if (filter.to() != null) text.append("to ").append(filter.to().toLocalDate()).append("  ");
+        if (filter.status() != null) text.append("status ").append(filter.status()).append("  ");
+        if (filter.location() != null) text.append("location ").append(filter.location()).append("  ");
+        if (filter.driver() != null) text.append("driver ").append(filter.driver()).append("  ");
+        return text.length() == length ? text.append("none").toString() : text.toString().trim();
+    }
+
+    private static String text(String value) {
+        return value != null ? value : "";
+    }
+
+    private static void deleteFile(ScheduleReportJob job) {
+        if (job == null || job.getFile() == null){
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.getFile());
+        }catch (IOException e){
+            log.warn("Could not delete report file {}", job.getFile(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        jobs.invalidateAll();
+        jobs.cleanUp();
+    }
+}
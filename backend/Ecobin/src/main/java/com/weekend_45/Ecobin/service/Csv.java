@@ -0,0 +1,19 @@
+package com.weekend_45.Ecobin.service;
+
+// RFC 4180 quoting for the CSV exports
+final class Csv {
+
+    private Csv() {
+    }
+
+    static String field(Object value) {
+        if (value == null){
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0){
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
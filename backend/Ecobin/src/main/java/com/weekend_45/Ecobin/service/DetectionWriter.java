@@ -0,0 +1,122 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.entity.ImageDetector;
+import com.weekend_45.Ecobin.repository.ImageDetectorRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Persists detections off the request thread. Requests only enqueue; a background writer drains
+// the queue and saves each chunk in one transaction, which Hibernate turns into JDBC batch inserts.
+// When the queue stays full past offer-timeout-ms the detection is refused so the caller can back off.
+@Service
+public class DetectionWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionWriter.class);
+
+    private final ImageDetectorRepo imageDetectorRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<ImageDetector> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public DetectionWriter(ImageDetectorRepo imageDetectorRepo,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${ecobin.detections.queue-capacity:10000}") int queueCapacity,
+                           @Value("${ecobin.detections.batch-size:200}") int batchSize,
+                           @Value("${ecobin.detections.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.imageDetectorRepo = imageDetectorRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        meterRegistry.gauge("ecobin.detections.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runLoop, "detection-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean submit(ImageDetector detection) {
+        try {
+            return queue.offer(detection, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runLoop() {
+        List<ImageDetector> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()){
+            try {
+                ImageDetector first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null){
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // A rejected batch is written again row by row, so one bad detection only loses itself
+    private void write(List<ImageDetector> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> imageDetectorRepo.saveAll(batch));
+            return;
+        }catch (RuntimeException e){
+            log.debug("Batch of {} detections rejected, writing them row by row", batch.size(), e);
+        }
+
+        int dropped = 0;
+        for (ImageDetector detection : batch){
+            // ids handed out inside the rolled back transaction are not in the table
+            detection.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> imageDetectorRepo.save(detection));
+            }catch (RuntimeException e){
+                dropped++;
+                log.error("Dropped a detection after a failed insert", e);
+            }
+        }
+        if (dropped > 0){
+            log.warn("Dropped {} of {} detections from a failed batch", dropped, batch.size());
+        }
+    }
+
+    // Lets the writer flush what is already queued before the datasource shuts down
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null){
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
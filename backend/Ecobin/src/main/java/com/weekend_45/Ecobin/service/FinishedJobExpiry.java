@@ -0,0 +1,34 @@
+package com.weekend_45.Ecobin.service;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+// Expiry for background job caches: a job never expires while it is queued or running, and expires
+// ttl after the write that marks it finished. The worker puts the job again once it is done.
+public class FinishedJobExpiry<K, V> implements Expiry<K, V> {
+
+    private final Predicate<V> finished;
+    private final long ttlNanos;
+
+    public FinishedJobExpiry(Predicate<V> finished, Duration ttl) {
+        this.finished = finished;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return finished.test(value) ? ttlNanos : Long.MAX_VALUE;
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,57 @@
+package com.weekend_45.Ecobin.service;
+
+// Great-circle helpers for the geo queries, on a spherical earth
+public final class Geo {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    // Half the circumference: no two points are further apart than this
+    public static final double MAX_DISTANCE_METERS = Math.PI * EARTH_RADIUS_METERS;
+
+    // Latitude and longitude range that contains every point within some distance of a centre
+    public record Box(double minLat, double maxLat, double minLon, double maxLon) {
+    }
+
+    private Geo() {
+    }
+
+    public static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    // Coordinates on an entity are optional, but must be given together and be in range
+    public static void requireValid(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null){
+            return;
+        }
+        if (latitude == null || longitude == null || !isValid(latitude, longitude)){
+            throw new IllegalArgumentException("latitude and longitude must be given together, latitude in [-90, 90] and longitude in [-180, 180]");
+        }
+    }
+
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Smallest box around a circle. Near a pole, or across the 180th meridian, the box spans every
+    // longitude rather than wrapping, which only lets in more candidates.
+    public static Box box(double latitude, double longitude, double radiusMeters) {
+        double angular = radiusMeters / EARTH_RADIUS_METERS;
+        double minLat = latitude - Math.toDegrees(angular);
+        double maxLat = latitude + Math.toDegrees(angular);
+        if (minLat <= -90 || maxLat >= 90){
+            return new Box(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180);
+        }
+
+        double deltaLon = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(latitude))));
+        double minLon = longitude - deltaLon;
+        double maxLon = longitude + deltaLon;
+        if (minLon < -180 || maxLon > 180){
+            return new Box(minLat, maxLat, -180, 180);
+        }
+        return new Box(minLat, maxLat, minLon, maxLon);
+    }
+}
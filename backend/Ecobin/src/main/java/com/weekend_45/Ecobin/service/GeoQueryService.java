@@ -0,0 +1,107 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.dto.GeoHit;
+import com.weekend_45.Ecobin.repository.CollectionScheduleRepo;
+import com.weekend_45.Ecobin.repository.WastePickupRequestRepository;
+import com.weekend_45.Ecobin.repository.WasteReportingRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Radius and k-nearest queries over the optional coordinates on reports, schedules and pickup requests.
+// The (latitude, longitude) index narrows each query to the bounding box of the circle, and only the
+// rows inside it are measured exactly. Nearest queries start with a small circle and double it until
+// it holds k rows: nothing outside a circle can be closer than what is inside it.
+@Service
+@Transactional(readOnly = true)
+public class GeoQueryService {
+
+    public enum Type {
+        REPORT, SCHEDULE, PICKUP;
+
+        // Accepts "report" or "reports" and so on, as used in the URLs
+        public static Optional<Type> parse(String value) {
+            String name = value.toUpperCase(Locale.ROOT);
+            for (Type type : values()){
+                if (name.equals(type.name()) || name.equals(type.name() + "S")){
+                    return Optional.of(type);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Autowired
+    private WasteReportingRepo wasteReportingRepo;
+
+    @Autowired
+    private CollectionScheduleRepo collectionScheduleRepo;
+
+    @Autowired
+    private WastePickupRequestRepository wastePickupRequestRepository;
+
+    @Value("${ecobin.geo.initial-radius-meters:1000}")
+    private double initialRadiusMeters;
+
+    // Every row in the circle is loaded and measured before limit applies, so the circle itself
+    // has to stay small enough for a dispatch area
+    @Value("${ecobin.geo.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    // Rows of the given type within radiusMeters of the point, closest first. The radius is capped at
+    // ecobin.geo.max-radius-km. status only applies to schedules.
+    public List<GeoHit> within(Type type, double latitude, double longitude, double radiusMeters,
+                               String wasteType, String status, int limit) {
+        return inCircle(type, latitude, longitude, Math.min(radiusMeters, maxRadiusMeters()), wasteType, status).stream()
+                .limit(limit)
+                .toList();
+    }
+
+    // The k rows of the given type closest to the point, closest first. Rows further away than
+    // ecobin.geo.max-radius-km are not considered, so fewer than k may come back.
+    public List<GeoHit> nearest(Type type, double latitude, double longitude, int k, String wasteType, String status) {
+        double maxRadius = maxRadiusMeters();
+        double radius = Math.min(initialRadiusMeters, maxRadius);
+        while (true){
+            List<GeoHit> hits = inCircle(type, latitude, longitude, radius, wasteType, status);
+            if (hits.size() >= k || radius >= maxRadius){
+                return hits.subList(0, Math.min(k, hits.size()));
+            }
+            radius = Math.min(radius * 2, maxRadius);
+        }
+    }
+
+    private double maxRadiusMeters() {
+        return Math.min(maxRadiusKm * 1000, Geo.MAX_DISTANCE_METERS);
+    }
+
+    private List<GeoHit> inCircle(Type type, double latitude, double longitude, double radiusMeters,
+                                  String wasteType, String status) {
+        Geo.Box box = Geo.box(latitude, longitude, radiusMeters);
+        List<GeoHit> candidates = switch (type){
+            case REPORT -> wasteReportingRepo.findGeoHitsWithin(box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), wasteType);
+            case SCHEDULE -> collectionScheduleRepo.findGeoHitsWithin(box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), wasteType, status);
+            case PICKUP -> wastePickupRequestRepository.findGeoHitsWithin(box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), wasteType);
+        };
+
+        // The box corners lie outside the circle
+        String typeName = type.name().toLowerCase(Locale.ROOT);
+        List<GeoHit> hits = new ArrayList<>(candidates.size());
+        for (GeoHit hit : candidates){
+            hit.setDistanceMeters(Geo.distanceMeters(latitude, longitude, hit.getLatitude(), hit.getLongitude()));
+            if (hit.getDistanceMeters() <= radiusMeters){
+                hit.setType(typeName);
+                hits.add(hit);
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoHit::getDistanceMeters));
+        return hits;
+    }
+}
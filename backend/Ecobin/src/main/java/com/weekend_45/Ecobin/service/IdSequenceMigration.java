@@ -0,0 +1,71 @@
+package com.weekend_45.Ecobin.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Moves the id sequences past the ids already in use. These entities had IDENTITY ids before, and the
+// schema update creates their sequences starting at 1 next to tables that already hold rows. MySQL has
+// no sequences, so Hibernate keeps each one as a single-row table (next_val). The pooled optimizer
+// hands out the allocationSize ids up to the value it reads, so next_val has to be at least
+// max(id) + allocationSize. This runs while the context starts, after the schema update and before
+// the web server takes requests, and never moves a sequence backwards, so it is safe on every start.
+@Component
+public class IdSequenceMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    // allocationSize of the @SequenceGenerator on each entity
+    private static final int ALLOCATION_SIZE = 50;
+
+    // table -> sequence
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("waste_reporting", "waste_reporting_seq");
+        SEQUENCES.put("waste_pickup_request", "waste_pickup_request_seq");
+        SEQUENCES.put("collection_schedule", "collection_schedule_seq");
+        SEQUENCES.put("contact_us", "contact_us_seq");
+        SEQUENCES.put("signup", "signup_seq");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Not used directly: depending on it makes the schema update run first
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${ecobin.migration.sequences.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    void migrate() {
+        if (!enabled){
+            return;
+        }
+        SEQUENCES.forEach(this::advance);
+    }
+
+    private void advance(String table, String sequence) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            long floor = (maxId != null ? maxId : 0) + ALLOCATION_SIZE;
+            if (jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", floor, floor) > 0){
+                log.info("Moved {} to {}, past the ids already used in {}", sequence, floor, table);
+            }
+        }catch (DataAccessException e){
+            // Databases with native sequences have no next_val table; only MySQL's emulation is handled here
+            log.debug("Skipping id sequence migration for {}: {}", sequence, e.getMessage());
+        }
+    }
+}
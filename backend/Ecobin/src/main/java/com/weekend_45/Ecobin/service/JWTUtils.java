@@ -1,6 +1,7 @@
 package com.weekend_45.Ecobin.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -17,12 +18,14 @@ import java.util.function.Function;
 public class JWTUtils {
 
     private SecretKey key;
+    private final JwtParser parser;
     private static final long EXPIRATION_TIME =86400000;
 
     public JWTUtils(){
         String secreteString ="843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3";
         byte[] keyBytes = Base64.getDecoder().decode(secreteString.getBytes(StandardCharsets.UTF_8));
         this.key = new SecretKeySpec(keyBytes,"HmacSHA256");
+        this.parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateToken(UserDetails userDetails){
@@ -45,17 +48,26 @@ public class JWTUtils {
 
     }
 
+    // Verifies the signature once and returns every claim, so callers that need the subject and
+    // the expiry do not parse the token again. Expired or tampered tokens throw a JwtException.
+    public Claims verifyClaims(String token){
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String extractUserName(String token){
         return extractClaims(token, Claims::getSubject);
     }
 
     private <T>T extractClaims(String token, Function<Claims,T> claimsTFunction){
-        return claimsTFunction.apply(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+        return claimsTFunction.apply(verifyClaims(token));
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUserName(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isClaimsValid(verifyClaims(token), userDetails);
+    }
+
+    public boolean isClaimsValid(Claims claims, UserDetails userDetails){
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public boolean isTokenExpired(String token){
@@ -1,15 +1,17 @@
 package com.weekend_45.Ecobin.service;
 
 
+import com.weekend_45.Ecobin.entity.OurUsers;
 import com.weekend_45.Ecobin.repository.UsersRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class OurUserDetailsService implements UserDetailsService {
+public class OurUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsersRepo usersRepo;
@@ -18,4 +20,11 @@ public class OurUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return usersRepo.findByEmail(username).orElseThrow();
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        OurUsers ourUser = usersRepo.findByEmail(user.getUsername()).orElseThrow();
+        ourUser.setPassword(newPassword);
+        return usersRepo.save(ourUser);
+    }
 }
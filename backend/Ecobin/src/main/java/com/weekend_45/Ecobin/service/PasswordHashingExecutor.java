@@ -0,0 +1,61 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs BCrypt work (login and registration) on a small fixed pool instead of Tomcat request
+// threads, so a burst of sign-ins cannot starve unrelated endpoints. The queue is bounded; once it
+// is full, submissions fail with PasswordHashingBusyException and the caller answers 503.
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${ecobin.auth.hashing.threads:0}") int threads,
+                                   @Value("${ecobin.auth.hashing.queue-capacity:64}") int queueCapacity) {
+        // BCrypt is pure CPU, so by default use one thread per core
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        meterRegistry.gauge("ecobin.auth.hashing.queue.depth", executor.getQueue(), BlockingQueue::size);
+        meterRegistry.gauge("ecobin.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount);
+        this.rejected = meterRegistry.counter("ecobin.auth.hashing.rejected");
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        }catch (RejectedExecutionException e){
+            rejected.increment();
+            return CompletableFuture.failedFuture(new PasswordHashingBusyException());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,59 @@
+package com.weekend_45.Ecobin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Keeps recently authenticated users in memory so JWTAuthFilter does not hit the users table on
+// every request. Entries expire after a short TTL and are dropped as soon as the user is updated
+// or deleted through UserManagementService.
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+    private final OurUserDetailsService ourUserDetailsService;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(OurUserDetailsService ourUserDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${ecobin.auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${ecobin.auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ourUserDetailsService = ourUserDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        meterRegistry.gauge("ecobin.auth.principal.cache.size", cache, Cache::estimatedSize);
+        this.hits = meterRegistry.counter("ecobin.auth.principal.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("ecobin.auth.principal.cache.requests", "result", "miss");
+    }
+
+    public UserDetails load(String email) {
+        UserDetails cached = cache.getIfPresent(email);
+        if (cached != null){
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        // a missing user throws here and is never cached
+        UserDetails userDetails = ourUserDetailsService.loadUserByUsername(email);
+        cache.put(email, userDetails);
+        return userDetails;
+    }
+
+    public void invalidate(String email) {
+        if (email != null){
+            cache.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.entity.CollectionSchedule;
+import com.weekend_45.Ecobin.entity.PickupFrequency;
+import com.weekend_45.Ecobin.entity.WastePickupRequest;
+import com.weekend_45.Ecobin.repository.CollectionScheduleRepo;
+import com.weekend_45.Ecobin.repository.WastePickupRequestRepository;
+import com.weekend_45.Ecobin.route.RoutePlanner;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Turns recurring pickup requests into Pending collection schedules, one per occurrence, up to a
+// rolling horizon. Each request remembers the first date it has not been expanded to yet
+// (nextOccurrence), so a run only reads requests that have an occurrence coming into the horizon, and
+// the schedules it already has are never generated again. Changing a request's frequency, address or
+// waste type drops its future Pending occurrences and expands it again from today.
+@Service
+@Order(4)
+public class RecurringPickupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringPickupService.class);
+
+    private final WastePickupRequestRepository wastePickupRequestRepository;
+    private final CollectionScheduleRepo collectionScheduleRepo;
+    private final TransactionTemplate transaction;
+    private final int horizonDays;
+    private final int batchSize;
+    private final long intervalMinutes;
+    private final LocalTime pickupTime;
+    private final ScheduledExecutorService scheduler;
+
+    public RecurringPickupService(WastePickupRequestRepository wastePickupRequestRepository,
+                                  CollectionScheduleRepo collectionScheduleRepo,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${ecobin.recurrence.horizon-days:28}") int horizonDays,
+                                  @Value("${ecobin.recurrence.batch-size:200}") int batchSize,
+                                  @Value("${ecobin.recurrence.interval-minutes:60}") long intervalMinutes,
+                                  @Value("${ecobin.recurrence.pickup-time:${ecobin.routes.pickup-time:08:00}}") LocalTime pickupTime) {
+        this.wastePickupRequestRepository = wastePickupRequestRepository;
+        this.collectionScheduleRepo = collectionScheduleRepo;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.intervalMinutes = intervalMinutes;
+        this.pickupTime = pickupTime;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recurring-pickups");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Expands every request with occurrences up to the horizon, one batch per transaction
+    public Map<String, Long> expand() {
+        LocalDate today = LocalDate.now();
+        LocalDate until = today.plusDays(horizonDays);
+        long requests = 0;
+        long schedules = 0;
+        while (true){
+            long[] batch = transaction.execute(status -> expandBatch(today, until));
+            requests += batch[0];
+            schedules += batch[1];
+            if (batch[0] < batchSize){
+                break;
+            }
+        }
+        if (requests > 0){
+            log.info("Expanded {} recurring pickup requests into {} collection schedules up to {}", requests, schedules, until);
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("schedules", schedules);
+        return result;
+    }
+
+    // Every request handled here moves its nextOccurrence past until, so the next query sees the rest
+    private long[] expandBatch(LocalDate today, LocalDate until) {
+        List<WastePickupRequest> due = wastePickupRequestRepository.findDueForExpansion(until, Limit.of(batchSize));
+        long created = 0;
+        for (WastePickupRequest request : due){
+            created += expand(request, today, until);
+        }
+        return new long[]{due.size(), created};
+    }
+
+    private int expand(WastePickupRequest request, LocalDate today, LocalDate until) {
+        PickupFrequency frequency = request.getRecurrence();
+        if (frequency == null){
+            wastePickupRequestRepository.updateNextOccurrence(request.getId(), null);
+            return 0;
+        }
+
+        // Occurrences missed while the service was down are not back-filled
+        LocalDate from = request.getNextOccurrence().isBefore(today) ? today : request.getNextOccurrence();
+        Set<LocalDate> existing = new HashSet<>();
+        for (LocalDateTime time : collectionScheduleRepo.findOccurrenceTimes(request.getId(), from.atStartOfDay())){
+            existing.add(time.toLocalDate());
+        }
+
+        int created = 0;
+        LocalDate date = frequency.firstOnOrAfter(request.getRecurrenceStart(), from);
+        while (!date.isAfter(until)){
+            if (!existing.contains(date)){
+                collectionScheduleRepo.save(occurrence(request, date));
+                created++;
+            }
+            date = frequency.firstOnOrAfter(request.getRecurrenceStart(), date.plusDays(1));
+        }
+        wastePickupRequestRepository.updateNextOccurrence(request.getId(), date);
+        return created;
+    }
+
+    private CollectionSchedule occurrence(WastePickupRequest request, LocalDate date) {
+        CollectionSchedule schedule = new CollectionSchedule();
+        schedule.setWasteType(request.getWasteType());
+        schedule.setCollectionDate(LocalDateTime.of(date, pickupTime));
+        schedule.setLocation(request.getAddress());
+        schedule.setLatitude(request.getLatitude());
+        schedule.setLongitude(request.getLongitude());
+        schedule.setStatus(RoutePlanner.PENDING);
+        schedule.setRemark("Recurring pickup request #" + request.getId());
+        schedule.setRecurringRequestId(request.getId());
+        return schedule;
+    }
+
+    // Call after a request's frequency, address, position or waste type changed
+    public void rescheduled(WastePickupRequest request) {
+        LocalDate today = LocalDate.now();
+        transaction.executeWithoutResult(status -> {
+            collectionScheduleRepo.deleteOccurrences(request.getId(), RoutePlanner.PENDING, today.atStartOfDay());
+            wastePickupRequestRepository.updateNextOccurrence(request.getId(), request.getRecurrence() != null ? today : null);
+        });
+    }
+
+    // Call after a request was deleted
+    public void cancelled(Long requestId) {
+        transaction.executeWithoutResult(status ->
+                collectionScheduleRepo.deleteOccurrences(requestId, RoutePlanner.PENDING, LocalDate.now().atStartOfDay()));
+    }
+
+    // Parses the frequency of requests saved before it was stored, then expands and keeps expanding
+    @Override
+    public void run(ApplicationArguments args) {
+        transaction.executeWithoutResult(status -> {
+            for (WastePickupRequest request : wastePickupRequestRepository.findUnparsedRecurring(PickupFrequency.names())){
+                request.deriveRecurrence();
+            }
+        });
+        expand();
+        scheduler.scheduleWithFixedDelay(this::expandQuietly, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private void expandQuietly() {
+        try {
+            expand();
+        }catch (RuntimeException e){
+            log.warn("Recurring pickup expansion failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+}
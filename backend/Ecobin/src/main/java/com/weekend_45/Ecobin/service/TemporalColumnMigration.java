@@ -0,0 +1,106 @@
+package com.weekend_45.Ecobin.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Backfills the typed date columns from the legacy string columns they replace. Rows are walked in
+// id order and updated in small JDBC batches, each its own transaction, so the tables stay usable
+// while it runs. It only touches rows whose typed column is still empty, so it is safe to rerun.
+// Values that cannot be parsed are left empty and logged with their row id.
+@Component
+@Order(1)
+public class TemporalColumnMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TemporalColumnMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${ecobin.migration.temporal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ecobin.migration.temporal.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled){
+            return;
+        }
+        backfill("waste_reporting", "date", "report_date", TemporalColumnMigration::parseDate);
+        backfill("collection_schedule", "collection_date", "collection_at", TemporalColumnMigration::parseDateTime);
+    }
+
+    private void backfill(String table, String legacyColumn, String typedColumn, Function<String, Object> parser) {
+        String select = "select id, " + legacyColumn + " as legacy from " + table +
+                " where id > ? and " + typedColumn + " is null and " + legacyColumn + " is not null order by id limit " + batchSize;
+        String update = "update " + table + " set " + typedColumn + " = ? where id = ?";
+
+        long lastId = 0;
+        int migrated = 0;
+        int unparseable = 0;
+        try {
+            List<Map<String, Object>> rows;
+            while (!(rows = jdbcTemplate.queryForList(select, lastId)).isEmpty()){
+                List<Object[]> updates = new ArrayList<>(rows.size());
+                for (Map<String, Object> row : rows){
+                    lastId = ((Number) row.get("id")).longValue();
+                    String legacy = row.get("legacy").toString().trim();
+                    Object value = parser.apply(legacy);
+                    if (value == null){
+                        // The legacy column is kept, so the raw value can still be fixed by hand
+                        log.warn("Cannot parse {}.{} of row {}: '{}', {} stays empty", table, legacyColumn, lastId, legacy, typedColumn);
+                        unparseable++;
+                    }else {
+                        updates.add(new Object[]{value, lastId});
+                    }
+                }
+                jdbcTemplate.batchUpdate(update, updates);
+                migrated += updates.size();
+            }
+        }catch (DataAccessException e){
+            // Databases created after the change have no legacy column
+            log.debug("Skipping date backfill for {}.{}: {}", table, legacyColumn, e.getMessage());
+            return;
+        }
+
+        if (migrated > 0 || unparseable > 0){
+            log.info("Backfilled {} rows of {}.{}, {} values could not be parsed", migrated, table, typedColumn, unparseable);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        LocalDateTime dateTime = parseDateTime(value);
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    // Accepts the ISO forms the date and datetime-local inputs produce, with or without a time part
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        }catch (DateTimeParseException e){
+            // fall through to a plain date
+        }
+        try {
+            return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value).atStartOfDay();
+        }catch (DateTimeParseException e){
+            return null;
+        }
+    }
+}
@@ -28,6 +28,9 @@ public class UserManagementService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     public ReqRes register(ReqRes registrationRequest){
         ReqRes resp = new ReqRes();
 
@@ -155,6 +158,7 @@ public class UserManagementService {
             Optional<OurUsers>usersOptional = usersRepo.findById(userId);
             if (usersOptional.isPresent()){
                 usersRepo.deleteById(userId);
+                principalCache.invalidate(usersOptional.get().getEmail());
                 reqRes.setStatusCode(200);
                 reqRes.setMessage("User deleted succesfully");
             }else {
@@ -178,6 +182,7 @@ public class UserManagementService {
 
             if (usersOptional.isPresent()){
                 OurUsers existingUser = usersOptional.get();
+                String previousEmail = existingUser.getEmail();
                 existingUser.setEmail(updateUser.getEmail());
                 existingUser.setName(updateUser.getName());
                 existingUser.setAge(updateUser.getAge());
@@ -189,6 +194,8 @@ public class UserManagementService {
                 }
 
                 OurUsers savedUser = usersRepo.save(existingUser);
+                principalCache.invalidate(previousEmail);
+                principalCache.invalidate(savedUser.getEmail());
                 reqRes.setOurUsers(savedUser);
                 reqRes.setStatusCode(200);
                 reqRes.setMessage("User Updated successfully");
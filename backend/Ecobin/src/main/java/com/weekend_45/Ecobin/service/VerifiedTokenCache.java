@@ -0,0 +1,106 @@
+package com.weekend_45.Ecobin.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+// Remembers the claims of tokens that already passed signature verification, keyed by a SHA-256
+// digest of the token so raw tokens are never held in memory. Each entry expires exactly at the
+// token's exp claim, so an expired token always falls through to JWTUtils and is rejected there.
+//
+// Revocation: tokens issued by this app cannot be revoked, so the cache does not widen the window
+// in which a token is accepted. Removing or changing a user still takes effect immediately,
+// because the filter resolves the subject through PrincipalCache, which is invalidated on those
+// writes. A future logout or deny-list should call invalidate() for the affected token.
+@Component
+public class VerifiedTokenCache {
+
+    private final JWTUtils jwtUtils;
+    private final Cache<String, Claims> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public VerifiedTokenCache(JWTUtils jwtUtils,
+                              MeterRegistry meterRegistry,
+                              @Value("${ecobin.auth.token-cache.max-size:10000}") long maxSize) {
+        this(jwtUtils, meterRegistry, maxSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JWTUtils jwtUtils, MeterRegistry meterRegistry, long maxSize, Ticker ticker) {
+        this.jwtUtils = jwtUtils;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+
+        meterRegistry.gauge("ecobin.auth.token.cache.size", cache, Cache::estimatedSize);
+        this.hits = meterRegistry.counter("ecobin.auth.token.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("ecobin.auth.token.cache.requests", "result", "miss");
+    }
+
+    // Returns the verified claims, throwing a JwtException for tampered or expired tokens.
+    // Failed verifications are not cached.
+    public Claims verify(String token) {
+        String key = digest(token);
+        Claims cached = cache.getIfPresent(key);
+        if (cached != null){
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Claims claims = jwtUtils.verifyClaims(token);
+        cache.put(key, claims);
+        return claims;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.dto.WasteAnalytics;
+import com.weekend_45.Ecobin.dto.WasteTypeTotal;
+import com.weekend_45.Ecobin.dto.WastePeriodTotal;
+import com.weekend_45.Ecobin.repository.WasteDailyRollupRepo;
+import com.weekend_45.Ecobin.repository.WasteRollupRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+public class WasteAnalyticsService {
+
+    @Autowired
+    private WasteRollupRepo wasteRollupRepo;
+
+    @Autowired
+    private WasteDailyRollupRepo wasteDailyRollupRepo;
+
+    @Value("${ecobin.analytics.recyclable-types:Plastic,Paper,Metal,Glass,Recyclable}")
+    private Set<String> recyclableTypes;
+
+    @Transactional(readOnly = true)
+    public WasteAnalytics getWasteAnalytics(LocalDate from, LocalDate to){
+        List<WasteTypeTotal> byType = new ArrayList<>();
+        List<WastePeriodTotal> monthly = new ArrayList<>();
+
+        // Whole months inside the range are answered from the monthly rollups and the partial months
+        // at either end from the daily ones, so no path reads the reports themselves
+        LocalDate firstFullMonth = isMonthStart(from) ? from : from.plusMonths(1).withDayOfMonth(1);
+        LocalDate lastFullMonth = isMonthEnd(to) ? to : to.withDayOfMonth(1).minusDays(1);
+        if (firstFullMonth == null || lastFullMonth == null || !firstFullMonth.isAfter(lastFullMonth)){
+            String fromMonth = firstFullMonth == null ? null : YearMonth.from(firstFullMonth).toString();
+            String toMonth = lastFullMonth == null ? null : YearMonth.from(lastFullMonth).toString();
+            byType.addAll(wasteRollupRepo.totalsByType(fromMonth, toMonth));
+            monthly.addAll(wasteRollupRepo.totalsByMonth(fromMonth, toMonth));
+            if (!isMonthStart(from)){
+                addDays(byType, monthly, from, firstFullMonth.minusDays(1));
+            }
+            if (!isMonthEnd(to)){
+                addDays(byType, monthly, lastFullMonth.plusDays(1), to);
+            }
+        }else {
+            addDays(byType, monthly, from, to);
+        }
+
+        byType = mergeTypes(byType);
+
+        WasteAnalytics analytics = new WasteAnalytics();
+        analytics.setFrom(from);
+        analytics.setTo(to);
+        analytics.setByType(byType);
+        analytics.setMonthly(mergePeriods(monthly));
+        analytics.setDaily(wasteDailyRollupRepo.totalsByDay(from, to));
+
+        long count = 0;
+        long weight = 0;
+        long recyclable = 0;
+        for (WasteTypeTotal total : byType){
+            count += total.getCount();
+            weight += total.getTotalWeight();
+            if (recyclableTypes.contains(total.getWasteType())){
+                recyclable += total.getCount();
+            }
+        }
+
+        analytics.setReportCount(count);
+        analytics.setTotalWeight(weight);
+        analytics.setAverageWeight(count == 0 ? 0 : (double) weight / count);
+        analytics.setRecyclingRate(count == 0 ? 0 : recyclable * 100.0 / count);
+        analytics.setMostCommonType(byType.stream()
+                .max(Comparator.comparingLong(WasteTypeTotal::getCount))
+                .map(WasteTypeTotal::getWasteType)
+                .orElse(null));
+
+        return analytics;
+    }
+
+    private void addDays(List<WasteTypeTotal> byType, List<WastePeriodTotal> monthly, LocalDate from, LocalDate to){
+        byType.addAll(wasteDailyRollupRepo.totalsByType(from, to));
+        monthly.addAll(wasteDailyRollupRepo.totalsByMonth(from, to));
+    }
+
+    private static List<WasteTypeTotal> mergeTypes(List<WasteTypeTotal> totals){
+        Map<String, WasteTypeTotal> merged = new LinkedHashMap<>();
+        for (WasteTypeTotal total : totals){
+            merged.merge(total.getWasteType(), total, (a, b) ->
+                    new WasteTypeTotal(a.getWasteType(), a.getCount() + b.getCount(), a.getTotalWeight() + b.getTotalWeight()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static List<WastePeriodTotal> mergePeriods(List<WastePeriodTotal> totals){
+        Map<String, WastePeriodTotal> merged = new TreeMap<>();
+        for (WastePeriodTotal total : totals){
+            merged.merge(total.getPeriod(), total, (a, b) ->
+                    new WastePeriodTotal(a.getPeriod(), a.getCount() + b.getCount(), a.getTotalWeight() + b.getTotalWeight()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private static boolean isMonthStart(LocalDate date){
+        return date == null || date.getDayOfMonth() == 1;
+    }
+
+    private static boolean isMonthEnd(LocalDate date){
+        return date == null || date.equals(YearMonth.from(date).atEndOfMonth());
+    }
+}
@@ -0,0 +1,177 @@
+package com.weekend_45.Ecobin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.weekend_45.Ecobin.dto.WasteReportingSummary;
+import com.weekend_45.Ecobin.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Writes waste reports straight from a forward-only cursor to the response, one row at a time, so an
+// export never holds the whole result set on the server. Rows are read as WasteReportingSummary
+// projections, which keeps the persistence context empty; image bytes are only read from the blob
+// store, row by row, when the caller asks for them.
+@Service
+public class WasteReportExportService {
+
+    private static final String QUERY =
+            "select new com.weekend_45.Ecobin.dto.WasteReportingSummary(r.id, r.wasteTitle, r.date, r.wasteType, " +
+            "r.wasteWeight, r.wasteLocation, r.description, r.reword, r.customerName, r.wasteImageKey) " +
+            "from WasteReporting r where (:from is null or r.date >= :from) and (:to is null or r.date <= :to) " +
+            "order by r.id asc";
+
+    private static final String CSV_HEADER =
+            "id,wasteTitle,date,wasteType,wasteWeight,wasteLocation,description,reword,customerName,wasteImageKey";
+
+    // Rows written between flushes, so the client starts receiving data early
+    private static final int FLUSH_EVERY = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${ecobin.export.fetch-size:500}")
+    private int fetchSize;
+
+    public WasteReportExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Connector/J ignores a positive fetch size and buffers the whole result unless the URL sets
+    // useCursorFetch; Integer.MIN_VALUE is its switch for streaming rows one at a time
+    @PostConstruct
+    void detectFetchSize() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            String url = connection.getMetaData().getURL();
+            if (product.toLowerCase().contains("mysql") && !url.contains("useCursorFetch=true")){
+                fetchSize = Integer.MIN_VALUE;
+            }
+        }
+    }
+
+    public void writeNdjson(LocalDate from, LocalDate to, boolean includeImages, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target);
+        forEachReport(from, to, new Consumer<>() {
+            private int written;
+
+            @Override
+            public void accept(WasteReportingSummary report) {
+                try {
+                    ObjectNode row = objectMapper.valueToTree(report);
+                    if (includeImages){
+                        row.put("wasteImage", imageBase64(report.getWasteImageKey()));
+                    }
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                    if (++written % FLUSH_EVERY == 0){
+                        out.flush();
+                    }
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        out.flush();
+    }
+
+    public void writeCsv(LocalDate from, LocalDate to, boolean includeImages, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target);
+        out.write((CSV_HEADER + (includeImages ? ",wasteImage" : "") + "\n").getBytes(StandardCharsets.UTF_8));
+        forEachReport(from, to, new Consumer<>() {
+            private int written;
+
+            @Override
+            public void accept(WasteReportingSummary report) {
+                StringBuilder line = new StringBuilder(256);
+                line.append(report.getId()).append(',')
+                        .append(Csv.field(report.getWasteTitle())).append(',')
+                        .append(Csv.field(report.getDate())).append(',')
+                        .append(Csv.field(report.getWasteType())).append(',')
+                        .append(Csv.field(report.getWasteWeight())).append(',')
+                        .append(Csv.field(report.getWasteLocation())).append(',')
+                        .append(Csv.field(report.getDescription())).append(',')
+                        .append(Csv.field(report.getReword())).append(',')
+                        .append(Csv.field(report.getCustomerName())).append(',')
+                        .append(Csv.field(report.getWasteImageKey()));
+                try {
+                    if (includeImages){
+                        line.append(',').append(Csv.field(imageBase64(report.getWasteImageKey())));
+                    }
+                    line.append('\n');
+                    out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+                    if (++written % FLUSH_EVERY == 0){
+                        out.flush();
+                    }
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        out.flush();
+    }
+
+    private void forEachReport(LocalDate from, LocalDate to, Consumer<WasteReportingSummary> consumer) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<WasteReportingSummary> rows = entityManager.createQuery(QUERY, WasteReportingSummary.class)
+                        .setParameter("from", from)
+                        .setParameter("to", to)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+                    rows.forEach(consumer);
+                }
+            });
+        }catch (UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
+
+    private String imageBase64(String key) throws IOException {
+        if (key == null){
+            return null;
+        }
+        Optional<Resource> image = blobStore.load(key);
+        if (image.isEmpty()){
+            return null;
+        }
+        try (InputStream in = image.get().getInputStream()) {
+            return Base64.getEncoder().encodeToString(in.readAllBytes());
+        }
+    }
+}
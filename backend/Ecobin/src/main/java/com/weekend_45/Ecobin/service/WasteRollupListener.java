@@ -0,0 +1,52 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.entity.WasteReporting;
+import com.weekend_45.Ecobin.entity.WasteRollupSnapshot;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Keeps waste_rollup and waste_daily_rollup in step with report writes. Callbacks run inside the
+// transaction that writes the report, and the JDBC upserts share its connection, so both commit or
+// roll back together.
+@Component
+public class WasteRollupListener {
+
+    @Autowired
+    private WasteRollupService wasteRollupService;
+
+    @PostLoad
+    public void loaded(WasteReporting report) {
+        report.setRollupSnapshot(WasteRollupSnapshot.of(report));
+    }
+
+    @PostPersist
+    public void created(WasteReporting report) {
+        WasteRollupSnapshot current = WasteRollupSnapshot.of(report);
+        wasteRollupService.add(current);
+        report.setRollupSnapshot(current);
+    }
+
+    @PostUpdate
+    public void updated(WasteReporting report) {
+        WasteRollupSnapshot previous = report.getRollupSnapshot();
+        WasteRollupSnapshot current = WasteRollupSnapshot.of(report);
+        if (current.equals(previous)){
+            return;
+        }
+        if (previous != null){
+            wasteRollupService.subtract(previous);
+        }
+        wasteRollupService.add(current);
+        report.setRollupSnapshot(current);
+    }
+
+    @PostRemove
+    public void removed(WasteReporting report) {
+        WasteRollupSnapshot previous = report.getRollupSnapshot();
+        wasteRollupService.subtract(previous != null ? previous : WasteRollupSnapshot.of(report));
+    }
+}
@@ -0,0 +1,131 @@
+package com.weekend_45.Ecobin.service;
+
+import com.weekend_45.Ecobin.entity.WasteRollupSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Order(2)
+public class WasteRollupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WasteRollupService.class);
+
+    // Single statement upsert, so concurrent writers to the same bucket cannot lose updates
+    private static final String UPSERT =
+            "insert into waste_rollup (report_month, waste_type, location, total_weight, report_count, total_reward) " +
+            "values (?, ?, ?, ?, ?, ?) as new on duplicate key update " +
+            "total_weight = total_weight + new.total_weight, " +
+            "report_count = report_count + new.report_count, " +
+            "total_reward = total_reward + new.total_reward";
+
+    private static final String REBUILD =
+            "insert into waste_rollup (report_month, waste_type, location, total_weight, report_count, total_reward) " +
+            "select coalesce(left(cast(report_date as char(10)), 7), ''), left(coalesce(waste_type, ''), 100), left(coalesce(waste_location, ''), 191), " +
+            "sum(coalesce(waste_weight, 0)), count(*), sum(coalesce(reword, 0)) from waste_reporting " +
+            "group by coalesce(left(cast(report_date as char(10)), 7), ''), left(coalesce(waste_type, ''), 100), left(coalesce(waste_location, ''), 191)";
+
+    private static final String UPSERT_DAILY =
+            "insert into waste_daily_rollup (report_date, waste_type, total_weight, report_count, total_reward) " +
+            "values (?, ?, ?, ?, ?) as new on duplicate key update " +
+            "total_weight = total_weight + new.total_weight, " +
+            "report_count = report_count + new.report_count, " +
+            "total_reward = total_reward + new.total_reward";
+
+    private static final String REBUILD_DAILY =
+            "insert into waste_daily_rollup (report_date, waste_type, total_weight, report_count, total_reward) " +
+            "select report_date, left(coalesce(waste_type, ''), 100), sum(coalesce(waste_weight, 0)), count(*), sum(coalesce(reword, 0)) " +
+            "from waste_reporting where report_date is not null group by report_date, left(coalesce(waste_type, ''), 100)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void add(WasteRollupSnapshot snapshot) {
+        apply(snapshot, 1);
+    }
+
+    public void subtract(WasteRollupSnapshot snapshot) {
+        apply(snapshot, -1);
+    }
+
+    // Adds many new reports at once, one upsert per bucket
+    public void addAll(Collection<WasteRollupSnapshot> snapshots) {
+        Map<List<Object>, long[]> buckets = new LinkedHashMap<>();
+        Map<List<Object>, long[]> dailyBuckets = new LinkedHashMap<>();
+        for (WasteRollupSnapshot snapshot : snapshots){
+            accumulate(buckets, List.of(snapshot.reportMonth(), snapshot.wasteType(), snapshot.location()), snapshot);
+            if (snapshot.reportDate() != null){
+                accumulate(dailyBuckets, List.of(snapshot.reportDate(), snapshot.wasteType()), snapshot);
+            }
+        }
+        upsertAll(UPSERT, buckets);
+        upsertAll(UPSERT_DAILY, dailyBuckets);
+    }
+
+    private static void accumulate(Map<List<Object>, long[]> buckets, List<Object> key, WasteRollupSnapshot snapshot) {
+        long[] totals = buckets.computeIfAbsent(key, k -> new long[3]);
+        totals[0] += snapshot.weight();
+        totals[1]++;
+        totals[2] += snapshot.reward();
+    }
+
+    private void upsertAll(String sql, Map<List<Object>, long[]> buckets) {
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, totals) -> {
+            List<Object> row = new ArrayList<>(key);
+            row.add(totals[0]);
+            row.add(totals[1]);
+            row.add(totals[2]);
+            rows.add(row.toArray());
+        });
+        if (!rows.isEmpty()){
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private void apply(WasteRollupSnapshot snapshot, int sign) {
+        jdbcTemplate.update(UPSERT, snapshot.reportMonth(), snapshot.wasteType(), snapshot.location(),
+                sign * snapshot.weight(), sign, sign * snapshot.reward());
+        if (snapshot.reportDate() != null){
+            jdbcTemplate.update(UPSERT_DAILY, snapshot.reportDate(), snapshot.wasteType(),
+                    sign * snapshot.weight(), sign, sign * snapshot.reward());
+        }
+    }
+
+    // Recomputes every bucket from the reports. Run it while report writes are paused, otherwise
+    // a write that commits during the rebuild can be counted twice or missed.
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("delete from waste_rollup");
+        jdbcTemplate.update("delete from waste_daily_rollup");
+        int buckets = jdbcTemplate.update(REBUILD);
+        int dailyBuckets = jdbcTemplate.update(REBUILD_DAILY);
+        log.info("Rebuilt {} waste rollup buckets and {} daily buckets", buckets, dailyBuckets);
+        return buckets + dailyBuckets;
+    }
+
+    // Seeds the rollups the first time they are deployed against existing reports
+    @Override
+    public void run(ApplicationArguments args) {
+        if (isEmpty("waste_rollup") && !isEmpty("waste_reporting")
+                || isEmpty("waste_daily_rollup") && !isEmpty("waste_reporting where report_date is not null")){
+            rebuild();
+        }
+    }
+
+    private boolean isEmpty(String source) {
+        return jdbcTemplate.queryForList("select 1 from " + source + " limit 1").isEmpty();
+    }
+}
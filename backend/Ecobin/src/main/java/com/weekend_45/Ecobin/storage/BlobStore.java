@@ -0,0 +1,20 @@
+package com.weekend_45.Ecobin.storage;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+
+// Content addressed storage for uploaded images. Keys are the lowercase hex SHA-256 of the content,
+// so storing the same bytes twice returns the same key and keeps a single copy.
+public interface BlobStore {
+
+    String store(MultipartFile file) throws IOException;
+
+    String store(byte[] content) throws IOException;
+
+    Optional<Resource> load(String key);
+
+    boolean exists(String key);
+}
@@ -0,0 +1,70 @@
+package com.weekend_45.Ecobin.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+// Moves images still held in the legacy LOB columns into the blob store, a few rows at a time,
+// and clears the LOB once the key is recorded. Tables created after the move have no LOB column
+// and are skipped.
+@Component
+public class LobImageMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LobImageMigration.class);
+    private static final int BATCH_SIZE = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${ecobin.storage.migrate-lobs:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled){
+            return;
+        }
+        migrate("waste_reporting", "waste_image", "waste_image_key");
+        migrate("collection_schedule", "truck_image", "truck_image_key");
+    }
+
+    private void migrate(String table, String lobColumn, String keyColumn) {
+        String select = "select id, " + lobColumn + " from " + table +
+                " where " + lobColumn + " is not null and " + keyColumn + " is null order by id limit " + BATCH_SIZE;
+        String update = "update " + table + " set " + keyColumn + " = ?, " + lobColumn + " = null where id = ?";
+
+        int moved = 0;
+        try {
+            List<Map<String, Object>> rows;
+            while (!(rows = jdbcTemplate.queryForList(select)).isEmpty()){
+                for (Map<String, Object> row : rows){
+                    String key = blobStore.store((byte[]) row.get(lobColumn));
+                    jdbcTemplate.update(update, key, row.get("id"));
+                    moved++;
+                }
+            }
+        }catch (DataAccessException e){
+            log.debug("Skipping image migration for {}.{}: {}", table, lobColumn, e.getMessage());
+        }catch (IOException e){
+            log.error("Image migration for {}.{} stopped after {} rows", table, lobColumn, moved, e);
+            return;
+        }
+
+        if (moved > 0){
+            log.info("Moved {} images from {}.{} to the blob store", moved, table, lobColumn);
+        }
+    }
+}
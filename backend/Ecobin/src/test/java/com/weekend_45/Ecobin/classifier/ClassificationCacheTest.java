@@ -0,0 +1,127 @@
+package com.weekend_45.Ecobin.classifier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassificationCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClassificationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ClassificationCache(meterRegistry, true, 100, 4, 600);
+    }
+
+    @Test
+    void hashBitsCompareEachPixelWithItsRightNeighbour() {
+        // brighter on the left: every pixel beats its right neighbour, so all 64 bits are set
+        assertEquals(-1L, PerceptualHash.dHash(gradient(true)));
+        assertEquals(0L, PerceptualHash.dHash(gradient(false)));
+        assertEquals(64, PerceptualHash.distance(-1L, 0L));
+    }
+
+    @Test
+    void identicalImageHasDistanceZero() {
+        BufferedImage image = blocks(1);
+
+        assertEquals(0, PerceptualHash.distance(PerceptualHash.dHash(image), PerceptualHash.dHash(copy(image))));
+    }
+
+    @Test
+    void slightlyChangedImageIsANearHit() {
+        BufferedImage image = blocks(1);
+        ClassificationResult result = new ClassificationResult("Plastic", 0.9f, 0, 0, 10, 10);
+        cache.put(PerceptualHash.dHash(image), result, 90, 80);
+
+        long changed = PerceptualHash.dHash(withNoise(image, 3));
+        assertTrue(PerceptualHash.distance(PerceptualHash.dHash(image), changed) <= 4);
+        assertEquals(result, cache.find(changed, 90, 80));
+        assertEquals(1.0, requests("near_hit"));
+    }
+
+    @Test
+    void differentImageIsAMiss() {
+        cache.put(PerceptualHash.dHash(blocks(1)), new ClassificationResult("Plastic", 0.9f, 0, 0, 10, 10), 90, 80);
+
+        assertNull(cache.find(PerceptualHash.dHash(blocks(2)), 90, 80));
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void exactHashIsAHit() {
+        long hash = PerceptualHash.dHash(blocks(1));
+        ClassificationResult result = new ClassificationResult("Glass", 0.8f, 0, 0, 10, 10);
+        cache.put(hash, result, 90, 80);
+
+        assertEquals(result, cache.find(hash, 90, 80));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    void boxIsScaledToTheRequestingImage() {
+        long hash = PerceptualHash.dHash(blocks(1));
+        cache.put(hash, new ClassificationResult("Glass", 0.8f, 9, 8, 45, 40), 90, 80);
+
+        // the same frame at twice the resolution
+        assertEquals(new ClassificationResult("Glass", 0.8f, 18, 16, 90, 80), cache.find(hash, 180, 160));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("ecobin.classifier.cache.requests", "result", result).count();
+    }
+
+    private static BufferedImage gradient(boolean brighterLeft) {
+        BufferedImage image = new BufferedImage(90, 80, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 90; x++){
+            int grey = brighterLeft ? 255 - x * 2 : x * 2;
+            for (int y = 0; y < 80; y++){
+                image.setRGB(x, y, grey << 16 | grey << 8 | grey);
+            }
+        }
+        return image;
+    }
+
+    // 9x8 grid of 10 pixel blocks with random brightness
+    private static BufferedImage blocks(long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(90, 80, BufferedImage.TYPE_INT_RGB);
+        for (int row = 0; row < 8; row++){
+            for (int column = 0; column < 9; column++){
+                int grey = random.nextInt(256);
+                for (int y = row * 10; y < row * 10 + 10; y++){
+                    for (int x = column * 10; x < column * 10 + 10; x++){
+                        image.setRGB(x, y, grey << 16 | grey << 8 | grey);
+                    }
+                }
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage withNoise(BufferedImage source, int amplitude) {
+        Random random = new Random(42);
+        BufferedImage image = copy(source);
+        for (int y = 0; y < image.getHeight(); y++){
+            for (int x = 0; x < image.getWidth(); x++){
+                int grey = (image.getRGB(x, y) & 0xff) + random.nextInt(2 * amplitude + 1) - amplitude;
+                grey = Math.max(0, Math.min(255, grey));
+                image.setRGB(x, y, grey << 16 | grey << 8 | grey);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage source) {
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        image.getGraphics().drawImage(source, 0, 0, null);
+        return image;
+    }
+}
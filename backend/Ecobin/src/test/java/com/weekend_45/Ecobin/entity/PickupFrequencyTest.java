@@ -0,0 +1,38 @@
+package com.weekend_45.Ecobin.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PickupFrequencyTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 31);
+
+    @Test
+    void parsesTheFormValuesAndCommonSpellings() {
+        assertEquals(PickupFrequency.WEEKLY, PickupFrequency.parse("Recurring"));
+        assertEquals(PickupFrequency.BIWEEKLY, PickupFrequency.parse(" Bi-Weekly "));
+        assertEquals(PickupFrequency.MONTHLY, PickupFrequency.parse("monthly"));
+        assertNull(PickupFrequency.parse("One-Time"));
+        assertNull(PickupFrequency.parse(null));
+    }
+
+    @Test
+    void dayBasedOccurrencesStepFromTheStart() {
+        assertEquals(START, PickupFrequency.WEEKLY.firstOnOrAfter(START, START.minusDays(3)));
+        assertEquals(START, PickupFrequency.WEEKLY.firstOnOrAfter(START, START));
+        assertEquals(START.plusDays(7), PickupFrequency.WEEKLY.firstOnOrAfter(START, START.plusDays(1)));
+        assertEquals(START.plusDays(28), PickupFrequency.BIWEEKLY.firstOnOrAfter(START, START.plusDays(15)));
+        assertEquals(START.plusDays(5), PickupFrequency.DAILY.firstOnOrAfter(START, START.plusDays(5)));
+    }
+
+    @Test
+    void monthlyOccurrencesKeepTheStartDayWhereTheMonthHasIt() {
+        assertEquals(LocalDate.of(2025, 2, 28), PickupFrequency.MONTHLY.firstOnOrAfter(START, LocalDate.of(2025, 2, 1)));
+        assertEquals(LocalDate.of(2025, 3, 31), PickupFrequency.MONTHLY.firstOnOrAfter(START, LocalDate.of(2025, 3, 1)));
+        assertEquals(LocalDate.of(2025, 4, 30), PickupFrequency.MONTHLY.firstOnOrAfter(START, LocalDate.of(2025, 3, 31).plusDays(1)));
+        assertEquals(LocalDate.of(2026, 1, 31), PickupFrequency.MONTHLY.firstOnOrAfter(START, LocalDate.of(2026, 1, 31)));
+    }
+}
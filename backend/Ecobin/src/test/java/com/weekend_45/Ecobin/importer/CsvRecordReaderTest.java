@@ -0,0 +1,44 @@
+package com.weekend_45.Ecobin.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\uFEFFname,address\r\n\"Doe, Jane\",\"12 \"\"Main\"\" St\nColombo\"\r\n\r\nAnn,,\n"));
+
+        assertEquals(List.of("name", "address"), reader.next());
+        assertEquals(1, reader.line());
+        assertEquals(List.of("Doe, Jane", "12 \"Main\" St\nColombo"), reader.next());
+        assertEquals(2, reader.line());
+        assertEquals(List.of("Ann", "", ""), reader.next());
+        assertEquals(5, reader.line());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void lastRecordNeedsNoLineEnd() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\r\nc,\"d\""));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\"c,d\n"));
+
+        reader.next();
+        IOException error = assertThrows(IOException.class, reader::next);
+        assertTrue(error.getMessage().contains("line 2"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.weekend_45.Ecobin.reward;
+
+import com.weekend_45.Ecobin.entity.RewardBalance;
+import com.weekend_45.Ecobin.repository.RewardBalanceRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RewardLeaderboardTest {
+
+    private final Map<String, Long> balances = new HashMap<>();
+    private final AtomicInteger reloads = new AtomicInteger();
+    private RewardLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        RewardBalanceRepo repo = mock(RewardBalanceRepo.class);
+        when(repo.findById(anyString())).thenAnswer(call -> Optional.ofNullable(balances.get(call.<String>getArgument(0)))
+                .map(balance -> new RewardBalance(call.getArgument(0), balance, null)));
+        when(repo.findAllByOrderByBalanceDescCustomerNameAsc(any(Limit.class))).thenAnswer(call -> {
+            reloads.incrementAndGet();
+            return ranking().stream().limit(call.<Limit>getArgument(0).max()).toList();
+        });
+        leaderboard = new RewardLeaderboard(repo, 5);
+    }
+
+    @Test
+    void matchesTheFullRankingThroughRandomChanges() {
+        Random random = new Random(42);
+        for (int step = 0; step < 2000; step++){
+            String customer = "c" + random.nextInt(30);
+            balances.merge(customer, (long) random.nextInt(41) - 15, Long::sum);
+            leaderboard.refresh(List.of(customer));
+
+            int limit = 1 + random.nextInt(5);
+            assertEquals(names(ranking().subList(0, Math.min(limit, ranking().size()))), names(leaderboard.top(limit)),
+                    "step " + step);
+        }
+    }
+
+    @Test
+    void gainsAreServedWithoutGoingBackToTheDatabase() {
+        for (int i = 0; i < 10; i++){
+            balances.put("c" + i, (long) i);
+        }
+        leaderboard.top(3);
+        int afterLoad = reloads.get();
+
+        balances.put("c2", 100L);
+        leaderboard.refresh(List.of("c2"));
+        balances.put("c9", 50L);
+        leaderboard.refresh(List.of("c9"));
+
+        assertEquals(List.of("c2", "c9", "c8"), names(leaderboard.top(3)));
+        assertEquals(afterLoad, reloads.get());
+    }
+
+    private List<RewardBalance> ranking() {
+        return balances.entrySet().stream()
+                .map(entry -> new RewardBalance(entry.getKey(), entry.getValue(), null))
+                .sorted(Comparator.comparingLong(RewardBalance::getBalance).reversed().thenComparing(RewardBalance::getCustomerName))
+                .toList();
+    }
+
+    private static List<String> names(List<RewardBalance> balances) {
+        return balances.stream().map(RewardBalance::getCustomerName).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.weekend_45.Ecobin.route;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteOptimizerTest {
+
+    @Test
+    void findsTheRingAroundShuffledPointsOnACircle() {
+        int stops = 40;
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < stops; i++){
+            double angle = 2 * Math.PI * i / stops;
+            points.add(new double[]{Math.cos(angle), Math.sin(angle)});
+        }
+        Collections.shuffle(points, new Random(7));
+        // Node 0 is the depot, on the circle as well
+        points.add(0, new double[]{1, 0});
+
+        RouteOptimizer optimizer = new RouteOptimizer(matrix(points, true), 50);
+        int[] tour = optimizer.solve();
+
+        assertEquals(0, tour[0]);
+        assertEquals(points.size(), Arrays.stream(tour).distinct().count());
+        // A 2-opt optimum has no crossing edges, which for points on a circle means going round it
+        double perimeter = stops * 2 * Math.sin(Math.PI / stops);
+        assertEquals(perimeter, optimizer.length(tour), 1e-9);
+    }
+
+    @Test
+    void withoutDepotTheRouteIsAnOpenPathAlongTheLine() {
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 25; i++){
+            points.add(new double[]{i, 0});
+        }
+        Collections.shuffle(points, new Random(3));
+        points.add(0, null);
+
+        RouteOptimizer optimizer = new RouteOptimizer(matrix(points, false), 50);
+
+        assertEquals(24, optimizer.length(optimizer.solve()), 1e-9);
+    }
+
+    @Test
+    void neverLongerThanTheGivenOrder() {
+        Random random = new Random(11);
+        for (int run = 0; run < 20; run++){
+            List<double[]> points = new ArrayList<>();
+            for (int i = 0; i < 30; i++){
+                points.add(new double[]{random.nextDouble() * 10, random.nextDouble() * 10});
+            }
+            RouteOptimizer optimizer = new RouteOptimizer(matrix(points, true), 50);
+            int[] given = new int[points.size()];
+            for (int i = 0; i < given.length; i++){
+                given[i] = i;
+            }
+
+            assertTrue(optimizer.length(optimizer.solve()) <= optimizer.length(given) + 1e-9);
+        }
+    }
+
+    // Euclidean distances; without a depot node 0 is at distance 0 from everything
+    private static double[][] matrix(List<double[]> points, boolean depot) {
+        int n = points.size();
+        double[][] distance = new double[n][n];
+        for (int i = 0; i < n; i++){
+            for (int j = 0; j < n; j++){
+                if (!depot && (i == 0 || j == 0)){
+                    continue;
+                }
+                distance[i][j] = Math.hypot(points.get(i)[0] - points.get(j)[0], points.get(i)[1] - points.get(j)[1]);
+            }
+        }
+        return distance;
+    }
+}
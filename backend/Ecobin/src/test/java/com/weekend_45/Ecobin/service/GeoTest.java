@@ -0,0 +1,58 @@
+package com.weekend_45.Ecobin.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoTest {
+
+    @Test
+    void knownDistances() {
+        // London to Paris is about 343.5 km along the great circle
+        assertEquals(343_500, Geo.distanceMeters(51.5074, -0.1278, 48.8566, 2.3522), 500);
+        // One degree of longitude on the equator
+        assertEquals(111_195, Geo.distanceMeters(0, 0, 0, 1), 1);
+        assertEquals(0, Geo.distanceMeters(6.9271, 79.8612, 6.9271, 79.8612), 1e-9);
+        assertEquals(Geo.MAX_DISTANCE_METERS, Geo.distanceMeters(0, 0, 0, 180), 1);
+    }
+
+    @Test
+    void distanceWrapsAcrossTheAntimeridian() {
+        assertEquals(22_239, Geo.distanceMeters(0, 179.9, 0, -179.9), 1);
+    }
+
+    @Test
+    void boxContainsTheCircle() {
+        Geo.Box box = Geo.box(6.9271, 79.8612, 10_000);
+
+        // 10 km due north and due east of the centre are on the circle
+        double dLat = Math.toDegrees(10_000 / Geo.EARTH_RADIUS_METERS);
+        assertEquals(6.9271 - dLat, box.minLat(), 1e-9);
+        assertEquals(6.9271 + dLat, box.maxLat(), 1e-9);
+        assertTrue(box.minLon() < 79.8612 && box.maxLon() > 79.8612);
+        assertEquals(10_000, Geo.distanceMeters(6.9271, 79.8612, 6.9271, box.maxLon()), 10);
+        assertTrue(box.maxLon() - box.minLon() < 1);
+    }
+
+    @Test
+    void boxAcrossTheAntimeridianSpansEveryLongitude() {
+        Geo.Box box = Geo.box(0, 179.9, 50_000);
+
+        assertEquals(-180, box.minLon());
+        assertEquals(180, box.maxLon());
+        assertTrue(box.minLat() < 0 && box.maxLat() > 0);
+    }
+
+    @Test
+    void boxNearAPoleSpansEveryLongitudeAndStopsAtThePole() {
+        Geo.Box north = Geo.box(89.9, 10, 50_000);
+        assertEquals(90, north.maxLat());
+        assertEquals(-180, north.minLon());
+        assertEquals(180, north.maxLon());
+
+        Geo.Box south = Geo.box(-89.9, 10, 50_000);
+        assertEquals(-90, south.minLat());
+        assertEquals(-180, south.minLon());
+        assertEquals(180, south.maxLon());
+    }
+}
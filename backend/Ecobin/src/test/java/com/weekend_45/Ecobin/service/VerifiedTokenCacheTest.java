@@ -0,0 +1,81 @@
+package com.weekend_45.Ecobin.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private JWTUtils jwtUtils;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JWTUtils();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtUtils, meterRegistry, 100, ticker);
+        token = jwtUtils.generateToken(User.withUsername("a@x.com").password("pw").build());
+    }
+
+    @Test
+    void repeatRequestsSkipVerification() {
+        Claims first = cache.verify(token);
+        Claims second = cache.verify(token);
+
+        assertSame(first, second);
+        assertEquals("a@x.com", second.getSubject());
+        assertEquals(1.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    void entryEvictsAtTokenExpiry() {
+        cache.verify(token);
+
+        nanos.addAndGet(Duration.ofHours(23).toNanos());
+        cache.verify(token);
+        assertEquals(1.0, requests("hit"));
+
+        // tokens are issued for 24 hours, so the entry is gone once the ticker passes exp
+        nanos.addAndGet(Duration.ofHours(1).plusSeconds(1).toNanos());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+        assertEquals(0, cache.size());
+        assertEquals(2.0, requests("miss"));
+    }
+
+    @Test
+    void invalidatedTokenIsVerifiedAgain() {
+        cache.verify(token);
+        cache.invalidate(token);
+        cache.verify(token);
+
+        assertEquals(2.0, requests("miss"));
+        assertEquals(0.0, requests("hit"));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("ecobin.auth.token.cache.requests", "result", result).count();
+    }
+}
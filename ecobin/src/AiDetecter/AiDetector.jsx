@@ -23,14 +23,18 @@ const AiDetector = () => {
   }, []);
 
   const captureAndClassify = async () => {
-    // Capture an image from the webcam
-    const imageSrc = webcamRef.current.getScreenshot();
-    if (!imageSrc) return;
+    // Capture the current frame from the webcam as a JPEG blob
+    const canvas = webcamRef.current.getCanvas();
+    if (!canvas) return;
+    const imageBlob = await new Promise((resolve) => canvas.toBlob(resolve, "image/jpeg", 0.92));
+    if (!imageBlob) return;
 
     setLoading(true);
     try {
-      // Send image to the classification API
-      const response = await axios.post("http://localhost:8080/public/classify", { image: imageSrc });
+      // Send the raw image bytes to the classification API
+      const response = await axios.post("http://localhost:8080/public/classify/upload", imageBlob, {
+        headers: { "Content-Type": "image/jpeg" },
+      });
       setClassification(response.data.result);
       setBoundingBox(response.data.boundingBox);
     } catch (error) {
@@ -30,12 +30,13 @@ const AnalyzePage = () => {
   const fetchData = async () => {
     setIsLoading(true);
     try {
-      const response = await axios.get(`${UserService.BASE_URL}/public/getAllReport`);
-      const wasteReports = response.data;
-      
+      // Aggregates are computed on the server, the payload no longer grows with the report count
+      const response = await axios.get(`${UserService.BASE_URL}/public/analytics/waste`);
+      const analytics = response.data;
+
       // Process data for different charts
-      processChartData(wasteReports);
-      calculateStats(wasteReports);
+      processChartData(analytics);
+      calculateStats(analytics);
     } catch (error) {
       console.error("Error fetching waste report data:", error);
     } finally {
@@ -50,61 +51,41 @@ const AnalyzePage = () => {
     return () => clearInterval(interval);
   }, []);
 
-  const processChartData = (wasteReports) => {
-    // Line chart data (monthly trends)
+  const processChartData = (analytics) => {
+    // Line chart data (monthly trends), periods are yyyy-MM
     const months = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun', 'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
     const monthlyWaste = months.map((month, index) => {
-      const monthReports = wasteReports.filter(report => new Date(report.date).getMonth() === index);
-      const totalWaste = monthReports.reduce((total, report) => total + report.wasteWeight, 0);
+      const totalWaste = analytics.monthly
+        .filter(total => Number(total.period.substring(5, 7)) === index + 1)
+        .reduce((sum, total) => sum + total.totalWeight, 0);
       return { name: month, value: totalWaste };
     });
     setLineChartData(monthlyWaste);
 
     // Bar chart data (waste types)
-    const wasteTypes = Array.from(new Set(wasteReports.map(report => report.wasteType)));
-    const wasteTypeData = wasteTypes.map(type => {
-      const typeReports = wasteReports.filter(report => report.wasteType === type);
-      return { name: type, value: typeReports.length };
-    });
-    setBarChartData(wasteTypeData);
+    setBarChartData(analytics.byType.map(total => ({ name: total.wasteType, value: total.count })));
 
     // Pie chart data (waste distribution)
-    const pieData = wasteTypes.map(type => {
-      const typeReports = wasteReports.filter(report => report.wasteType === type);
-      const totalWeight = typeReports.reduce((sum, report) => sum + report.wasteWeight, 0);
-      return { name: type, value: totalWeight };
-    });
-    setPieChartData(pieData);
+    setPieChartData(analytics.byType.map(total => ({ name: total.wasteType, value: total.totalWeight })));
 
     // Area chart data (cumulative waste)
-    const sortedReports = [...wasteReports].sort((a, b) => new Date(a.date) - new Date(b.date));
     let cumulativeWeight = 0;
-    const areaData = sortedReports.map(report => {
-      cumulativeWeight += report.wasteWeight;
+    const areaData = analytics.daily.map(total => {
+      cumulativeWeight += total.totalWeight;
       return {
-        date: new Date(report.date).toLocaleDateString(),
+        date: new Date(total.period).toLocaleDateString(),
         weight: cumulativeWeight
       };
     });
     setAreaChartData(areaData);
   };
 
-  const calculateStats = (wasteReports) => {
-    const totalWaste = wasteReports.reduce((sum, report) => sum + report.wasteWeight, 0);
-    const averageWeight = totalWaste / wasteReports.length;
-    const wasteTypeCounts = {};
-    wasteReports.forEach(report => {
-      wasteTypeCounts[report.wasteType] = (wasteTypeCounts[report.wasteType] || 0) + 1;
-    });
-    const mostCommonType = Object.entries(wasteTypeCounts)
-      .sort(([,a], [,b]) => b - a)[0][0];
-    const recyclingRate = (wasteReports.filter(r => r.wasteType === 'Recyclable').length / wasteReports.length) * 100;
-
+  const calculateStats = (analytics) => {
     setStats({
-      totalWaste,
-      averageWeight,
-      mostCommonType,
-      recyclingRate
+      totalWaste: analytics.totalWeight,
+      averageWeight: analytics.averageWeight,
+      mostCommonType: analytics.mostCommonType || '-',
+      recyclingRate: analytics.recyclingRate
     });
   };
 
@@ -54,9 +54,9 @@ function CollectionSchduleReport() {
 
     const filteredSchedules = collectionSchedule.filter(schedule => 
         schedule.id.toString().includes(searchQuery) || 
-        schedule.driverName.toLowerCase().includes(searchQuery.toLowerCase()) || 
-        schedule.wasteType.toLowerCase().includes(searchQuery.toLowerCase()) || 
-        schedule.collectionDate.toLowerCase().includes(searchQuery.toLowerCase())
+        (schedule.driverName ?? '').toLowerCase().includes(searchQuery.toLowerCase()) || 
+        (schedule.wasteType ?? '').toLowerCase().includes(searchQuery.toLowerCase()) || 
+        (schedule.collectionDate ?? '').toLowerCase().includes(searchQuery.toLowerCase())
     );
 
     return (
@@ -170,10 +170,10 @@ function CollectionSchduleReport() {
                                     </td>
 
                                     <td className="py-3 px-6 text-center">
-                                        {schedule.truckImage && (
+                                        {schedule.truckImageKey && (
                                             <div className="flex justify-center items-center">
                                                 <img
-                                                    src={`data:image/jpeg;base64,${schedule.truckImage}`}
+                                                    src={`http://localhost:8080/public/images/${schedule.truckImageKey}`}
                                                     alt="Truck"
                                                     className="w-12 h-12 object-cover rounded-md"
                                                 />
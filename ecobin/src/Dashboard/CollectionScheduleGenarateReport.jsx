@@ -1,21 +1,15 @@
 import React, { useEffect, useState } from "react";
 import axios from "axios";
-import jsPDF from "jspdf";
 import { Link } from "react-router-dom";
 import logo from "../Home/images/Logo.png";
 import UserService from "../Home/UserService";
-import QRCode from "qrcode";
 
 function CollectionScheduleGenerateReport() {
     const [collectionSchedule, setCollectionSchedule] = useState([]);
     const [loading, setLoading] = useState(true);
-    const [qrCodeDataURL, setQRCodeDataURL] = useState("");
 
     useEffect(() => {
-        setTimeout(() => {
-            loadSchedule();
-            generateQRCode();
-        }, 1500);
+        loadSchedule();
     }, []);
 
     const loadSchedule = async () => {
@@ -29,85 +23,9 @@ function CollectionScheduleGenerateReport() {
         }
     };
 
-    const generateQRCode = async () => {
-        try {
-            // You can customize what data to include in the QR code
-            const qrData = `WasteTrack Collection Schedule Report\nGenerated on: ${new Date().toLocaleString()}`;
-            const url = await QRCode.toDataURL(qrData, {
-                width: 150,
-                margin: 2,
-                color: {
-                    dark: '#000000',  // Black dots
-                    light: '#ffffff' // White background
-                }
-            });
-            setQRCodeDataURL(url);
-        } catch (err) {
-            console.error("Error generating QR code:", err);
-        }
-    };
-
-    const generatePDF = () => {
-        const doc = new jsPDF();
-        const currentDateTime = new Date().toLocaleString();
-
-        // Load image asynchronously
-        const img = new Image();
-        img.src = logo;
-
-        img.onload = async () => {
-            // Add Logo
-            doc.addImage(img, "PNG", 75, 5, 60, 20);
-
-            // Report Title
-            doc.setFontSize(20);
-            doc.setTextColor(34, 139, 34);
-            doc.text("Waste Collection Schedule Report", 14, 35);
-
-            // Date and Time
-            doc.setFontSize(12);
-            doc.setTextColor(0, 0, 0);
-            doc.text(`Generated on: ${currentDateTime}`, 14, 45);
-
-            let yPosition = 60; // Start position for text
-
-            collectionSchedule.forEach((schedule, index) => {
-                doc.setFontSize(14);
-                doc.setTextColor(0, 0, 128);
-                doc.text(`Schedule ${index + 1}`, 14, yPosition);
-
-                doc.setFontSize(12);
-                doc.setTextColor(0, 0, 0);
-                doc.text(`Truck ID: ${schedule.id}`, 14, yPosition + 8);
-                doc.text(`Driver Name: ${schedule.driverName}`, 14, yPosition + 16);
-                doc.text(`Waste Type: ${schedule.wasteType}`, 14, yPosition + 24);
-                doc.text(`Collection Date: ${schedule.collectionDate}`, 14, yPosition + 32);
-                doc.text(`Status: ${schedule.status}`, 14, yPosition + 40);
-
-                yPosition += 55;
-
-                if (yPosition > 270) {
-                    doc.addPage();
-                    yPosition = 20;
-                }
-            });
-
-            // Add QR Code to the PDF
-            if (qrCodeDataURL) {
-                // Position the QR code at the bottom right
-                const qrSize = 40;
-                const pageWidth = doc.internal.pageSize.getWidth();
-                doc.addImage(qrCodeDataURL, 'PNG', pageWidth - qrSize - 20, yPosition + 20, qrSize, qrSize);
-                doc.setFontSize(10);
-                doc.text("Scan to verify this report", pageWidth - qrSize - 20, yPosition + 20 + qrSize + 5);
-            }
-
-            // Signature Space
-            doc.text("Signature: __________________", 14, yPosition + 20);
-
-            // Save PDF
-            doc.save("Collection_Schedule_Report.pdf");
-        };
+    // The report is generated and streamed by the server, so its size does not depend on this page
+    const downloadReport = (format) => {
+        window.location.href = `${UserService.BASE_URL}/public/schedules/report?format=${format}`;
     };
 
     return (
@@ -133,12 +51,19 @@ function CollectionScheduleGenerateReport() {
                 ) : (
                     <>
                         <button
-                            onClick={generatePDF}
+                            onClick={() => downloadReport("pdf")}
                             className="w-full bg-green-600 text-white text-lg font-semibold p-4 rounded-xl 
                             shadow-md hover:bg-green-700 transition-all duration-300 transform hover:scale-105"
                         >
                             📄 Download PDF Report
                         </button>
+                        <button
+                            onClick={() => downloadReport("csv")}
+                            className="w-full mt-4 bg-white text-green-700 text-lg font-semibold p-4 rounded-xl border-2 border-green-600
+                            shadow-md hover:bg-green-50 transition-all duration-300"
+                        >
+                            📊 Download CSV
+                        </button>
 
                         <div className="mt-8 space-y-6">
                             {collectionSchedule.map((schedule, index) => (
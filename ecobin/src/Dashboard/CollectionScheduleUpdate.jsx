@@ -40,8 +40,8 @@ const CollectionScheduleUpdate = () => {
       const result = await axios.get(`http://localhost:8080/public/getById/${id}`);
       setCollectionSchedule(result.data);
 
-      if (result.data.truckImage) {
-        setImagePreview(result.data.truckImage);
+      if (result.data.truckImageKey) {
+        setImagePreview(`http://localhost:8080/public/images/${result.data.truckImageKey}`);
       }
     } catch (error) {
       console.error("Error fetching schedule:", error);
@@ -53,13 +53,13 @@ const CollectionScheduleUpdate = () => {
     const nameRegex = /^[A-Za-z\s]+$/;
     const locationRegex = /^[A-Za-z\s,]+$/;
 
-    if (!collectionSchedule.driverName.trim()) {
+    if (!(collectionSchedule.driverName ?? '').trim()) {
       newErrors.driverName = "Driver name is required";
     } else if (!nameRegex.test(collectionSchedule.driverName)) {
       newErrors.driverName = "Only letters are allowed";
     }
 
-    if (!collectionSchedule.location.trim()) {
+    if (!(collectionSchedule.location ?? '').trim()) {
       newErrors.location = "Location is required";
     } else if (!locationRegex.test(collectionSchedule.location)) {
       newErrors.location = "Only letters and commas are allowed";
@@ -172,7 +172,7 @@ const CollectionScheduleUpdate = () => {
                 type="text"
                 id="driverName"
                 name="driverName"
-                value={collectionSchedule.driverName}
+                value={collectionSchedule.driverName ?? ''}
                 onChange={handleChange}
                 required
                 className={`w-full px-4 py-3 border rounded-lg focus:ring-2 focus:ring-green-500 focus:border-transparent transition-all ${
@@ -221,7 +221,7 @@ const CollectionScheduleUpdate = () => {
                 type="datetime-local"
                 id="collectionDate"
                 name="collectionDate"
-                value={collectionSchedule.collectionDate}
+                value={collectionSchedule.collectionDate ?? ''}
                 onChange={handleChange}
                 required
                 min={minDate}
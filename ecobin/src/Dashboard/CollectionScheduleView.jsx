@@ -122,11 +122,11 @@ const CollectionScheduleView = () => {
                   <h3 className="text-2xl font-semibold text-gray-800">Collection Vehicle</h3>
                 </div>
                 
-                {collectionSchedule.truckImage ? (
+                {collectionSchedule.truckImageKey ? (
                   <div className="flex-1 flex items-center justify-center">
                     <motion.img
                       whileHover={{ scale: 1.03 }}
-                      src={`data:image/jpeg;base64,${collectionSchedule.truckImage}`}
+                      src={`http://localhost:8080/public/images/${collectionSchedule.truckImageKey}`}
                       alt="Garbage Truck"
                       className="w-full h-80 object-contain rounded-lg shadow-md"
                     />
@@ -10,13 +10,10 @@ export default function Leaderboard() {
   // Fetch leaderboard data from the backend
   useEffect(() => {
     axios
-      .get(`${UserService.BASE_URL}/public/getAllReport`) // Replace with your API endpoint
+      .get(`${UserService.BASE_URL}/public/rewards/leaderboard`, { params: { limit: 10 } })
       .then((response) => {
-        // Sort the data by points in descending order
-        const sortedData = response.data
-          .sort((a, b) => b.reword - a.reword) // Assuming 'reword' is the points field
-          .slice(0, 10); // Get the top 10 performers
-        setLeaderboardData(sortedData);
+        // Top 10 customers by reward balance, highest first
+        setLeaderboardData(response.data);
       })
       .catch((error) => {
         console.error("Error fetching leaderboard data:", error);
@@ -79,7 +76,7 @@ export default function Leaderboard() {
                     {entry.customerName}
                   </td>
                   <td className="p-3 text-green-600 font-semibold">
-                    {entry.reword} pts
+                    {entry.balance} pts
                   </td>
                 </tr>
               ))}
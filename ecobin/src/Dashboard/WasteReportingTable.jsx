@@ -37,7 +37,7 @@ const WasteReportingTable = () => {
 
   const handleUpdate = (report) => {
     setEditReport(report);
-    setImagePreview(report.wasteImage ? `data:image/jpeg;base64,${report.wasteImage}` : null);
+    setImagePreview(report.wasteImageKey ? `http://localhost:8080/public/images/${report.wasteImageKey}` : null);
     setIsModalOpen(true);
   };
 
@@ -261,6 +261,14 @@ const WasteReportingTable = () => {
                   className="pl-10 w-64 p-2 border border-gray-300 rounded-lg focus:outline-none focus:ring-2 focus:ring-green-500 focus:border-transparent transition-all duration-200"
                 />
               </div>
+              {/* Streamed by the server straight to a file, so large exports never load into the page */}
+              <a
+                href={`${UserService.BASE_URL}/public/reports/export?format=csv`}
+                download
+                className="px-4 py-2 bg-green-600 text-white rounded-lg hover:bg-green-700 transition-colors duration-200"
+              >
+                Export CSV
+              </a>
             </div>
           </div>
 
@@ -608,11 +616,11 @@ const WasteReportingTable = () => {
               <div>
                 <h3 className="text-lg font-semibold mb-2">Description</h3>
                 <p className="text-gray-700 mb-4">{reportDetails?.description || 'No description provided'}</p>
-                {reportDetails?.wasteImage && (
+                {reportDetails?.wasteImageKey && (
                   <>
                     <h3 className="text-lg font-semibold mb-2">Waste Image</h3>
                     <img
-                      src={`data:image/jpeg;base64,${reportDetails.wasteImage}`}
+                      src={`http://localhost:8080/public/images/${reportDetails.wasteImageKey}`}
                       alt="Waste"
                       className="h-48 w-full object-contain rounded-md border border-gray-200"
                     />